@@ -1,6 +1,8 @@
 package kaede.valineenergycore;
 
 import com.mojang.logging.LogUtils;
+import kaede.valineenergycore.api.energy.VEMemoryManager;
+import kaede.valineenergycore.common.capabilities.VECapabilities;
 import kaede.valineenergycore.common.registration.VECreativeTabs;
 import kaede.valineenergycore.common.registration.VERegistration;
 import kaede.valineenergycore.common.config.VEConfig;
@@ -9,6 +11,7 @@ import net.minecraftforge.eventbus.api.IEventBus;
 import net.minecraftforge.fml.ModLoadingContext;
 import net.minecraftforge.fml.common.Mod;
 import net.minecraftforge.fml.config.ModConfig;
+import net.minecraftforge.fml.event.config.ModConfigEvent;
 import net.minecraftforge.fml.event.lifecycle.FMLCommonSetupEvent;
 import net.minecraftforge.fml.javafmlmod.FMLJavaModLoadingContext;
 import org.slf4j.Logger;
@@ -39,6 +42,9 @@ public class ValineEnergyCore {
 
         // イベントリスナー登録
         modEventBus.addListener(this::commonSetup);
+        modEventBus.addListener(VECapabilities::register);
+        modEventBus.addListener(this::onConfigLoad);
+        modEventBus.addListener(this::onConfigReload);
 
         // Forge Event Bus (VENetworkRegistryが使用)
         // VENetworkRegistryは@Mod.EventBusSubscriberで自動登録される
@@ -52,13 +58,36 @@ public class ValineEnergyCore {
 
         event.enqueueWork(() -> {
             // Post-initialization処理
-            // Capabilityの登録などをここで行う
+            // Capability自体は RegisterCapabilitiesEvent で登録済み
             initializeCapabilities();
         });
     }
 
+    private void onConfigLoad(final ModConfigEvent.Loading event) {
+        if (event.getConfig().getSpec() == VEConfig.COMMON_SPEC) {
+            onConfigChanged();
+        }
+    }
+
+    private void onConfigReload(final ModConfigEvent.Reloading event) {
+        if (event.getConfig().getSpec() == VEConfig.COMMON_SPEC) {
+            onConfigChanged();
+        }
+    }
+
+    /**
+     * Config読込/再読込時に事前計算している値を作り直す
+     */
+    private void onConfigChanged() {
+        VEConfig.rebuildSnapshot();
+        VEMemoryManager.reload();
+    }
+
     private void initializeCapabilities() {
-        LOGGER.info("Initializing VE Capabilities...");
-        // TODO: Capability登録
+        if (VECapabilities.VE_CONTAINER.isRegistered()) {
+            LOGGER.info("VE Capability registered");
+        } else {
+            LOGGER.error("VE Capability is not registered, VE transfers will fall back to Forge Energy");
+        }
     }
 }
\ No newline at end of file
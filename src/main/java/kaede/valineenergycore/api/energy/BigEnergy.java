@@ -5,37 +5,47 @@ import java.math.BigInteger;
 import java.math.MathContext;
 import java.math.RoundingMode;
 import net.minecraft.nbt.CompoundTag;
+import net.minecraft.nbt.Tag;
 
 /**
  * ValineEnergy (VE) の値を表すクラス
  * FloatingLongのBigInteger版として設計
  * より大きな数値と高精度な計算をサポート
+ *
+ * longに収まる値はlongのまま保持し、オーバーフローした時だけBigIntegerに切り替える
  */
 public class BigEnergy implements Comparable<BigEnergy> {
 
-    public static final BigEnergy ZERO = new BigEnergy(BigInteger.ZERO);
-    public static final BigEnergy ONE = new BigEnergy(BigInteger.ONE);
+    public static final BigEnergy ZERO = new BigEnergy(0L, null);
+    public static final BigEnergy ONE = new BigEnergy(1L, null);
 
-    // 内部的にBigIntegerで保持（整数部分）
-    private final BigInteger value;
+    // longに収まる場合の値（bigがnullの時のみ有効）
+    private final long small;
+    // longに収まらない場合のみ非null
+    private final BigInteger big;
 
     // 計算用のMathContext（精度設定）
     private static final MathContext MATH_CONTEXT = new MathContext(32, RoundingMode.HALF_UP);
 
-    private BigEnergy(BigInteger value) {
-        this.value = value;
+    private BigEnergy(long small, BigInteger big) {
+        this.small = small;
+        this.big = big;
     }
 
     // ========== ファクトリーメソッド ==========
 
     public static BigEnergy create(BigInteger value) {
-        if (value.equals(BigInteger.ZERO)) return ZERO;
-        if (value.equals(BigInteger.ONE)) return ONE;
-        return new BigEnergy(value);
+        // longに収まるなら常にlong表現に正規化する（equals/compareToの前提）
+        if (value.bitLength() < Long.SIZE) {
+            return create(value.longValue());
+        }
+        return new BigEnergy(0L, value);
     }
 
     public static BigEnergy create(long value) {
-        return create(BigInteger.valueOf(value));
+        if (value == 0L) return ZERO;
+        if (value == 1L) return ONE;
+        return new BigEnergy(value, null);
     }
 
     public static BigEnergy create(double value) {
@@ -43,31 +53,66 @@ public class BigEnergy implements Comparable<BigEnergy> {
     }
 
     public static BigEnergy create(String value) {
+        // 18桁以下なら必ずlongに収まる
+        if (value.length() <= 18) {
+            return create(Long.parseLong(value));
+        }
         return create(new BigInteger(value));
     }
 
     // ========== 算術演算 ==========
 
     public BigEnergy add(BigEnergy other) {
-        return create(this.value.add(other.value));
+        if (this.big == null && other.big == null) {
+            long a = this.small;
+            long b = other.small;
+            long result = a + b;
+            // Math.addExact と同じオーバーフロー判定（例外を投げない版）
+            if (((a ^ result) & (b ^ result)) >= 0) {
+                return create(result);
+            }
+        }
+        return create(this.toBigInteger().add(other.toBigInteger()));
     }
 
     public BigEnergy subtract(BigEnergy other) {
-        BigInteger result = this.value.subtract(other.value);
+        if (this.big == null && other.big == null) {
+            long a = this.small;
+            long b = other.small;
+            long result = a - b;
+            // Math.subtractExact と同じオーバーフロー判定
+            if (((a ^ b) & (a ^ result)) >= 0) {
+                // 負の値にならないようにガード
+                return result < 0 ? ZERO : create(result);
+            }
+        }
+        BigInteger result = this.toBigInteger().subtract(other.toBigInteger());
         // 負の値にならないようにガード
-        return result.compareTo(BigInteger.ZERO) < 0 ? ZERO : create(result);
+        return result.signum() < 0 ? ZERO : create(result);
     }
 
     public BigEnergy multiply(BigEnergy other) {
-        return create(this.value.multiply(other.value));
+        if (this.big == null && other.big == null) {
+            BigEnergy result = multiplyExact(this.small, other.small);
+            if (result != null) {
+                return result;
+            }
+        }
+        return create(this.toBigInteger().multiply(other.toBigInteger()));
     }
 
     public BigEnergy multiply(long scalar) {
-        return create(this.value.multiply(BigInteger.valueOf(scalar)));
+        if (this.big == null) {
+            BigEnergy result = multiplyExact(this.small, scalar);
+            if (result != null) {
+                return result;
+            }
+        }
+        return create(this.toBigInteger().multiply(BigInteger.valueOf(scalar)));
     }
 
     public BigEnergy multiply(double scalar) {
-        BigDecimal decimal = new BigDecimal(this.value).multiply(
+        BigDecimal decimal = new BigDecimal(this.toBigInteger()).multiply(
                 BigDecimal.valueOf(scalar), MATH_CONTEXT
         );
         return create(decimal.toBigInteger());
@@ -75,23 +120,65 @@ public class BigEnergy implements Comparable<BigEnergy> {
 
     public BigEnergy divide(BigEnergy other) {
         if (other.isZero()) return ZERO;
-        return create(this.value.divide(other.value));
+        if (this.big == null && other.big == null && other.small != -1L) {
+            return create(this.small / other.small);
+        }
+        return create(this.toBigInteger().divide(other.toBigInteger()));
+    }
+
+    /**
+     * 商と剰余を同時に計算
+     * @return {商, 剰余}（0除算の場合は {ZERO, ZERO}）
+     */
+    public BigEnergy[] divideAndRemainder(BigEnergy other) {
+        if (other.isZero()) return new BigEnergy[]{ZERO, ZERO};
+        if (this.big == null && other.big == null && other.small != -1L) {
+            return new BigEnergy[]{create(this.small / other.small), create(this.small % other.small)};
+        }
+        BigInteger[] result = this.toBigInteger().divideAndRemainder(other.toBigInteger());
+        return new BigEnergy[]{create(result[0]), create(result[1])};
     }
 
     public BigEnergy divide(long scalar) {
         if (scalar == 0) return ZERO;
-        return create(this.value.divide(BigInteger.valueOf(scalar)));
+        if (this.big == null && scalar != -1L) {
+            return create(this.small / scalar);
+        }
+        return create(this.toBigInteger().divide(BigInteger.valueOf(scalar)));
+    }
+
+    /**
+     * long同士の乗算（Math.multiplyExact と同じ判定）
+     * @return オーバーフローする場合はnull
+     */
+    private static BigEnergy multiplyExact(long a, long b) {
+        long high = Math.multiplyHigh(a, b);
+        long low = a * b;
+        if ((high == 0L && low >= 0L) || (high == -1L && low < 0L)) {
+            return create(low);
+        }
+        return null;
     }
 
     // ========== 比較演算 ==========
 
     @Override
     public int compareTo(BigEnergy other) {
-        return this.value.compareTo(other.value);
+        if (this.big == null && other.big == null) {
+            return Long.compare(this.small, other.small);
+        }
+        // BigInteger表現の値は必ずlongの範囲外なので符号だけで大小が決まる
+        if (this.big == null) {
+            return -other.big.signum();
+        }
+        if (other.big == null) {
+            return this.big.signum();
+        }
+        return this.big.compareTo(other.big);
     }
 
     public boolean isZero() {
-        return this.value.equals(BigInteger.ZERO);
+        return this.big == null && this.small == 0L;
     }
 
     public boolean greaterThan(BigEnergy other) {
@@ -121,46 +208,77 @@ public class BigEnergy implements Comparable<BigEnergy> {
     }
 
     public BigEnergy copy() {
-        return create(this.value);
+        // 不変オブジェクトなのでそのまま返す
+        return this;
     }
 
     // ========== 型変換 ==========
 
     public BigInteger toBigInteger() {
-        return this.value;
+        return this.big != null ? this.big : BigInteger.valueOf(this.small);
+    }
+
+    /**
+     * longで正確に表現できるかどうか
+     */
+    public boolean fitsInLong() {
+        return this.big == null;
     }
 
     public long longValue() {
-        return this.value.longValue();
+        return this.big != null ? this.big.longValue() : this.small;
     }
 
     public double doubleValue() {
-        return this.value.doubleValue();
+        return this.big != null ? this.big.doubleValue() : (double) this.small;
     }
 
     // ========== NBT保存/読込 ==========
 
+    /**
+     * NBTに保存
+     * longに収まる値は LongTag、それ以外は BigInteger#toByteArray() の ByteArrayTag で保存する
+     * （10進文字列への変換を避けるため）
+     */
     public void writeToNBT(CompoundTag tag, String key) {
-        tag.putString(key, this.value.toString());
+        if (this.big == null) {
+            tag.putLong(key, this.small);
+        } else {
+            tag.putByteArray(key, this.big.toByteArray());
+        }
     }
 
+    /**
+     * NBTから読込
+     * 旧形式（10進文字列の StringTag）も読み込める
+     */
     public static BigEnergy readFromNBT(CompoundTag tag, String key) {
-        if (tag.contains(key)) {
-            String str = tag.getString(key);
-            try {
-                return create(str);
-            } catch (NumberFormatException e) {
+        switch (tag.getTagType(key)) {
+            case Tag.TAG_LONG:
+                return create(tag.getLong(key));
+            case Tag.TAG_BYTE_ARRAY:
+                byte[] bytes = tag.getByteArray(key);
+                return bytes.length == 0 ? ZERO : create(new BigInteger(bytes));
+            case Tag.TAG_STRING:
+                // 旧形式
+                try {
+                    return create(tag.getString(key));
+                } catch (NumberFormatException e) {
+                    return ZERO;
+                }
+            default:
                 return ZERO;
-            }
         }
-        return ZERO;
     }
 
     // ========== 文字列変換 ==========
 
     @Override
     public String toString() {
-        return formatWithSuffix(this.value);
+        if (this.big == null && this.small >= 0L && this.small < 1000L) {
+            return this.small + " VE";
+        }
+        return formatWithSuffix(this.toBigInteger());
     }
 
     /**
@@ -193,12 +311,16 @@ public class BigEnergy implements Comparable<BigEnergy> {
     @Override
     public boolean equals(Object obj) {
         if (this == obj) return true;
-        if (!(obj instanceof BigEnergy)) return false;
-        return this.value.equals(((BigEnergy) obj).value);
+        if (!(obj instanceof BigEnergy other)) return false;
+        // 表現は正規化されているのでフィールド比較で十分
+        if (this.big == null || other.big == null) {
+            return this.big == null && other.big == null && this.small == other.small;
+        }
+        return this.big.equals(other.big);
     }
 
     @Override
     public int hashCode() {
-        return this.value.hashCode();
+        return this.big != null ? this.big.hashCode() : Long.hashCode(this.small);
     }
 }
\ No newline at end of file
@@ -0,0 +1,163 @@
+package kaede.valineenergycore.api.energy;
+
+import java.math.BigInteger;
+
+/**
+ * BigEnergy の合計をループ内で計算するための可変アキュムレータ
+ * x = x.add(y) のように毎回 BigEnergy を生成せず、longに収まる間はプリミティブで加算する
+ *
+ * スレッドセーフではないので、ローカル変数またはフィールドとして単一スレッドで使用すること
+ */
+public class BigEnergyAccumulator {
+
+    // longに収まる部分の合計
+    private long small;
+    // longからあふれた部分の合計（あふれていなければnull）
+    private BigInteger big;
+
+    public BigEnergyAccumulator() {
+    }
+
+    public BigEnergyAccumulator(BigEnergy initial) {
+        set(initial);
+    }
+
+    // ========== 演算 ==========
+
+    /**
+     * 値を加算
+     */
+    public BigEnergyAccumulator add(BigEnergy energy) {
+        if (energy.fitsInLong()) {
+            return add(energy.longValue());
+        }
+        big = big == null ? energy.toBigInteger() : big.add(energy.toBigInteger());
+        return this;
+    }
+
+    /**
+     * longの値を加算
+     */
+    public BigEnergyAccumulator add(long value) {
+        long result = small + value;
+        // Math.addExact と同じオーバーフロー判定
+        if (((small ^ result) & (value ^ result)) < 0) {
+            // あふれる前の部分をBigIntegerに退避
+            BigInteger spilled = BigInteger.valueOf(small);
+            big = big == null ? spilled : big.add(spilled);
+            small = value;
+        } else {
+            small = result;
+        }
+        return this;
+    }
+
+    /**
+     * 値を減算（BigEnergy.subtract と同様に0未満にはならない）
+     */
+    public BigEnergyAccumulator subtract(BigEnergy energy) {
+        if (big == null && energy.fitsInLong()) {
+            long value = energy.longValue();
+            long result = small - value;
+            // Math.subtractExact と同じオーバーフロー判定
+            if (((small ^ value) & (small ^ result)) >= 0) {
+                small = Math.max(result, 0L);
+                return this;
+            }
+        }
+
+        BigInteger result = total().subtract(energy.toBigInteger());
+        setTotal(result.signum() < 0 ? BigInteger.ZERO : result);
+        return this;
+    }
+
+    /**
+     * 現在値と指定値の小さい方に更新
+     */
+    public BigEnergyAccumulator min(BigEnergy energy) {
+        if (compareTo(energy) > 0) {
+            set(energy);
+        }
+        return this;
+    }
+
+    /**
+     * 現在値と指定値の大きい方に更新
+     */
+    public BigEnergyAccumulator max(BigEnergy energy) {
+        if (compareTo(energy) < 0) {
+            set(energy);
+        }
+        return this;
+    }
+
+    /**
+     * 値を設定
+     */
+    public BigEnergyAccumulator set(BigEnergy energy) {
+        if (energy.fitsInLong()) {
+            small = energy.longValue();
+            big = null;
+        } else {
+            small = 0L;
+            big = energy.toBigInteger();
+        }
+        return this;
+    }
+
+    /**
+     * 0にリセット（インスタンスを使い回す場合に使用）
+     */
+    public BigEnergyAccumulator reset() {
+        small = 0L;
+        big = null;
+        return this;
+    }
+
+    // ========== 比較 ==========
+
+    public int compareTo(BigEnergy energy) {
+        if (big == null && energy.fitsInLong()) {
+            return Long.compare(small, energy.longValue());
+        }
+        return total().compareTo(energy.toBigInteger());
+    }
+
+    public boolean isZero() {
+        return big == null ? small == 0L : total().signum() == 0;
+    }
+
+    // ========== 型変換 ==========
+
+    /**
+     * 現在の合計を不変の BigEnergy として取得
+     */
+    public BigEnergy toBigEnergy() {
+        if (big == null) {
+            return BigEnergy.create(small);
+        }
+        return BigEnergy.create(total());
+    }
+
+    private BigInteger total() {
+        if (big == null) {
+            return BigInteger.valueOf(small);
+        }
+        return small == 0L ? big : big.add(BigInteger.valueOf(small));
+    }
+
+    private void setTotal(BigInteger value) {
+        if (value.bitLength() < Long.SIZE) {
+            small = value.longValue();
+            big = null;
+        } else {
+            small = 0L;
+            big = value;
+        }
+    }
+
+    @Override
+    public String toString() {
+        return toBigEnergy().toString();
+    }
+}
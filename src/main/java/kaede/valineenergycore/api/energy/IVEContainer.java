@@ -18,6 +18,7 @@ public interface IVEContainer {
 
     /**
      * エネルギー量を設定
+     * 値が変わった場合は実装側で onContentsChanged を呼ぶ
      * @param energy 設定するVE量
      */
     void setEnergy(@Nonnull BigEnergy energy);
@@ -45,8 +46,8 @@ public interface IVEContainer {
         BigEnergy toInsert = energy.min(needed);
 
         if (action.execute()) {
+            // 通知は setEnergy が行う
             setEnergy(getEnergy().add(toInsert));
-            onContentsChanged();
         }
 
         return toInsert;
@@ -68,8 +69,8 @@ public interface IVEContainer {
         BigEnergy toExtract = energy.min(current);
 
         if (action.execute()) {
+            // 通知は setEnergy が行う
             setEnergy(current.subtract(toExtract));
-            onContentsChanged();
         }
 
         return toExtract;
@@ -84,6 +85,24 @@ public interface IVEContainer {
         return getMaxEnergy().subtract(getEnergy());
     }
 
+    /**
+     * 1回の insert で受け入れられる最大量（入力レート制限を含む）
+     * @return 受け入れ可能なVE量
+     */
+    @Nonnull
+    default BigEnergy getMaxInsert() {
+        return canReceive() ? getNeeded() : BigEnergy.ZERO;
+    }
+
+    /**
+     * 1回の extract で取り出せる最大量（出力レート制限を含む）
+     * @return 抽出可能なVE量
+     */
+    @Nonnull
+    default BigEnergy getMaxExtract() {
+        return canExtract() ? getEnergy() : BigEnergy.ZERO;
+    }
+
     /**
      * エネルギーを受け取れるかどうか
      * @return 受け取り可能ならtrue
@@ -118,6 +137,7 @@ public interface IVEContainer {
 
     /**
      * 内容が変更された時のコールバック
+     * 1tickに何度も変更されるコンテナは VEChangeBatcher.coalesced でまとめられる
      */
     default void onContentsChanged() {
         // オーバーライドして使用
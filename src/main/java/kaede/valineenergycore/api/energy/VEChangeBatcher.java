@@ -0,0 +1,71 @@
+package kaede.valineenergycore.api.energy;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * onContentsChanged の通知をtickごとにまとめる
+ *
+ * coalesced() で包んだコールバックは、何回呼ばれても次の flush() で一回だけ実行される
+ * 1tickに何度も insert / extract されるコンテナ（ケーブルのバッファなど）で
+ * setChanged() やクライアント同期を一回にするために使う
+ * flush() はサーバーtickの終わりに呼ばれる
+ */
+public final class VEChangeBatcher {
+
+    private static final Queue<CoalescedCallback> PENDING = new ConcurrentLinkedQueue<>();
+
+    private VEChangeBatcher() {
+    }
+
+    /**
+     * 次の flush() まで実行を遅らせ、まとめて一回にするコールバックを作成
+     * 呼び出しはどのスレッドからでもよい（実行は flush() を呼んだスレッド）
+     */
+    public static Runnable coalesced(Runnable callback) {
+        return new CoalescedCallback(callback);
+    }
+
+    /**
+     * 変更のあったコンテナのコールバックを一回ずつ実行
+     * コールバック中に発生した変更は次の flush() に回す
+     */
+    public static void flush() {
+        for (int remaining = PENDING.size(); remaining > 0; remaining--) {
+            CoalescedCallback callback = PENDING.poll();
+            if (callback == null) {
+                break;
+            }
+            callback.pending.set(false);
+            callback.target.run();
+        }
+    }
+
+    /**
+     * 未実行の通知を破棄（サーバー停止時）
+     */
+    public static void clear() {
+        CoalescedCallback callback;
+        while ((callback = PENDING.poll()) != null) {
+            callback.pending.set(false);
+        }
+    }
+
+    private static final class CoalescedCallback implements Runnable {
+        final Runnable target;
+        // キューに入っている間true（dirtyフラグ）
+        final AtomicBoolean pending = new AtomicBoolean();
+
+        CoalescedCallback(Runnable target) {
+            this.target = target;
+        }
+
+        @Override
+        public void run() {
+            if (pending.compareAndSet(false, true)) {
+                PENDING.add(this);
+            }
+        }
+    }
+}
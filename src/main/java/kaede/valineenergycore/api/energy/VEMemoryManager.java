@@ -1,47 +1,63 @@
 package kaede.valineenergycore.api.energy;
 
 import kaede.valineenergycore.common.config.VEConfig;
+import kaede.valineenergycore.common.config.VEConfigSnapshot;
 import com.mojang.logging.LogUtils;
 import org.slf4j.Logger;
+
+import javax.management.Notification;
+import javax.management.NotificationEmitter;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryNotificationInfo;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.lang.management.MemoryUsage;
 import java.math.BigInteger;
 
 /**
  * ValineEnergy (VE) のメモリベース最大値管理システム - Config対応版
- * 設定ファイルから値を動的に取得
+ * 最大容量はConfig読込時に一度だけ計算し、以降は計算済みの値を返す
+ * （Runtime.maxMemory() はJVMの起動中は変わらない）
+ *
+ * メモリ使用率の監視はポーリングせず、ヒープのメモリプールに設定した
+ * 使用量閾値の超過通知（MemoryPoolMXBean）で行う
  */
 public class VEMemoryManager {
 
     private static final Logger LOGGER = LogUtils.getLogger();
 
-    // キャッシュされた最大VE値
-    private static BigEnergy cachedMaxVE = null;
-    private static long cachedMaxMemoryMB = 0;
-    private static long lastWarningTime = 0;
+    // メモリベース制限が無効な場合の容量（実質無制限、10^100 - 1）
+    private static final BigEnergy UNLIMITED_CAPACITY = BigEnergy.create(BigInteger.TEN.pow(100).subtract(BigInteger.ONE));
+
+    // 計算済みの最大VE値（Config読込時に更新）
+    private static volatile BigEnergy maxVECapacity = null;
+    private static volatile long lastWarningTime = 0;
     private static final long WARNING_COOLDOWN_MS = 60000; // 1分
 
+    private static boolean listenerRegistered = false;
+
+    // メモリ逼迫による縮退モード中か（通知スレッドで設定、サーバースレッドで解除）
+    private static volatile boolean underPressure = false;
+
     /**
      * 現在利用可能な最大VE容量を取得
      * 設定でメモリベース制限が無効の場合は無制限
      */
     public static BigEnergy getMaxVECapacity() {
-        // メモリベース制限が無効の場合は事実上無制限
-        if (!VEConfig.COMMON.enableMemoryBasedLimits.get()) {
-            // 極めて大きな値を返す（実質無制限）
-            return BigEnergy.create(new BigInteger("9".repeat(100))); // 10^100に近い値
+        BigEnergy capacity = maxVECapacity;
+        if (capacity == null) {
+            // Config読込前に呼ばれた場合
+            capacity = recalculateMaxVE();
         }
+        return capacity;
+    }
 
-        long currentMaxMemoryMB = getMaxMemoryMB();
-
-        // キャッシュが有効ならそれを返す
-        if (cachedMaxVE != null && cachedMaxMemoryMB == currentMaxMemoryMB) {
-            return cachedMaxVE;
-        }
-
-        // 再計算
-        cachedMaxMemoryMB = currentMaxMemoryMB;
-        cachedMaxVE = calculateMaxVE(currentMaxMemoryMB);
-
-        return cachedMaxVE;
+    private static BigEnergy recalculateMaxVE() {
+        BigEnergy capacity = VEConfig.snapshot().enableMemoryBasedLimits()
+                ? calculateMaxVE(getMaxMemoryMB())
+                : UNLIMITED_CAPACITY;
+        maxVECapacity = capacity;
+        return capacity;
     }
 
     /**
@@ -59,18 +75,18 @@ public class VEMemoryManager {
      */
     private static BigEnergy calculateMaxVE(long memoryMB) {
         if (memoryMB <= 0) {
-            return VEConfig.COMMON.getMinimumGuaranteedCapacity();
+            return VEConfig.snapshot().minimumGuaranteedCapacity();
         }
 
         // Configから VE per MB を取得
-        BigInteger vePerMB = VEConfig.COMMON.getVEPerMB();
+        BigInteger vePerMB = VEConfig.snapshot().vePerMB();
 
         // メモリMB × VE per MB
         BigInteger result = vePerMB.multiply(BigInteger.valueOf(memoryMB));
         BigEnergy calculated = BigEnergy.create(result);
 
         // 最小保証値を下回らないようにする
-        BigEnergy minimum = VEConfig.COMMON.getMinimumGuaranteedCapacity();
+        BigEnergy minimum = VEConfig.snapshot().minimumGuaranteedCapacity();
         return calculated.max(minimum);
     }
 
@@ -91,7 +107,7 @@ public class VEMemoryManager {
      * 指定されたVE量が現在の最大容量を超えていないか検証
      */
     public static boolean isWithinLimit(BigEnergy energy) {
-        if (!VEConfig.COMMON.enableMemoryBasedLimits.get()) {
+        if (!VEConfig.snapshot().enableMemoryBasedLimits()) {
             return true; // 制限が無効なら常にtrue
         }
         return energy.smallerOrEqual(getMaxVECapacity());
@@ -101,7 +117,7 @@ public class VEMemoryManager {
      * VE量を現在の最大容量でクランプ
      */
     public static BigEnergy clampToLimit(BigEnergy energy) {
-        if (!VEConfig.COMMON.enableMemoryBasedLimits.get()) {
+        if (!VEConfig.snapshot().enableMemoryBasedLimits()) {
             return energy; // 制限が無効ならそのまま返す
         }
         return energy.min(getMaxVECapacity());
@@ -109,37 +125,169 @@ public class VEMemoryManager {
 
     /**
      * メモリ使用率が閾値を超えているか確認し、必要なら警告
+     * 通常は閾値超過通知から呼ばれるので、定期的に呼ぶ必要はない
      */
     public static void checkMemoryUsage() {
-        if (!VEConfig.COMMON.showMemoryWarnings.get()) {
+        if (!VEConfig.snapshot().showMemoryWarnings()) {
             return;
         }
 
         MemoryInfo info = getMemoryInfo();
         double usageRatio = info.getUsagePercentage() / 100.0;
-        double threshold = VEConfig.COMMON.memoryUsageWarningThreshold.get();
+        double threshold = VEConfig.snapshot().memoryUsageWarningThreshold();
 
         if (usageRatio > threshold) {
-            long currentTime = System.currentTimeMillis();
-            if (currentTime - lastWarningTime > WARNING_COOLDOWN_MS) {
-                LOGGER.warn(
-                        "VE Memory Warning: Memory usage is at {:.1f}% (threshold: {:.1f}%). " +
-                                "Consider allocating more RAM or reducing VE container usage.",
-                        usageRatio * 100,
-                        threshold * 100
-                );
-                lastWarningTime = currentTime;
+            warnMemoryUsage(usageRatio, threshold);
+        }
+    }
+
+    private static void warnMemoryUsage(double usageRatio, double threshold) {
+        long currentTime = System.currentTimeMillis();
+        if (currentTime - lastWarningTime > WARNING_COOLDOWN_MS) {
+            lastWarningTime = currentTime;
+            LOGGER.warn(
+                    "VE Memory Warning: Memory usage is at {}% (threshold: {}%). " +
+                            "Consider allocating more RAM or reducing VE container usage.",
+                    String.format("%.1f", usageRatio * 100),
+                    String.format("%.1f", threshold * 100)
+            );
+        }
+    }
+
+    // ========== メモリ使用量の監視 ==========
+
+    /**
+     * ヒープのメモリプールに使用量閾値を設定する（Config読込時に呼ぶ）
+     * GC後の使用量（collection usage）が閾値を超えるとJVMから通知される
+     */
+    private static synchronized void updateUsageThresholds() {
+        if (!listenerRegistered) {
+            if (ManagementFactory.getMemoryMXBean() instanceof NotificationEmitter emitter) {
+                emitter.addNotificationListener((notification, handback) -> onMemoryNotification(notification), null, null);
+                listenerRegistered = true;
+            } else {
+                LOGGER.warn("Memory usage notifications are not supported on this JVM");
+                return;
+            }
+        }
+
+        VEConfigSnapshot config = VEConfig.snapshot();
+        boolean enabled = config.showMemoryWarnings() || config.enableMemoryPressureDegradation();
+        double threshold = config.memoryUsageWarningThreshold();
+
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (!isTenuredHeapPool(pool)) {
+                continue;
+            }
+
+            long max = pool.getUsage().getMax();
+            // 0 を設定すると閾値の監視は無効になる
+            long bytes = enabled && max > 0 ? (long) (max * threshold) : 0;
+
+            if (pool.isCollectionUsageThresholdSupported()) {
+                pool.setCollectionUsageThreshold(bytes);
+            } else {
+                pool.setUsageThreshold(bytes);
             }
         }
     }
 
     /**
-     * キャッシュをクリア（Config変更時に呼ぶ）
+     * 監視対象のメモリプールか
+     * 使用量閾値に対応しているヒープのプールは長寿命領域（Old Genなど）だけ
+     * （Eden / Survivor はGC直後でも満杯に近いことがあるので対象外）
+     */
+    private static boolean isTenuredHeapPool(MemoryPoolMXBean pool) {
+        return pool.getType() == MemoryType.HEAP && pool.isValid() && pool.isUsageThresholdSupported();
+    }
+
+    /**
+     * 閾値超過の通知（JVMの通知スレッドで呼ばれる）
      */
-    public static void clearCache() {
-        cachedMaxVE = null;
-        cachedMaxMemoryMB = 0;
-        LOGGER.info("VE Memory Manager cache cleared");
+    private static void onMemoryNotification(Notification notification) {
+        String type = notification.getType();
+        if (!MemoryNotificationInfo.MEMORY_THRESHOLD_EXCEEDED.equals(type)
+                && !MemoryNotificationInfo.MEMORY_COLLECTION_THRESHOLD_EXCEEDED.equals(type)) {
+            return;
+        }
+
+        VEConfigSnapshot config = VEConfig.snapshot();
+        if (config.enableMemoryPressureDegradation() && !underPressure) {
+            underPressure = true;
+            LOGGER.warn("VE Memory pressure: heap usage after GC exceeded {}%, switching VE networks to degraded mode",
+                    String.format("%.1f", config.memoryUsageWarningThreshold() * 100));
+        }
+
+        if (config.showMemoryWarnings()) {
+            MemoryInfo info = getMemoryInfo();
+            warnMemoryUsage(info.getUsagePercentage() / 100.0, config.memoryUsageWarningThreshold());
+        }
+    }
+
+    // ========== メモリ逼迫時の縮退 ==========
+
+    /**
+     * メモリ逼迫による縮退モード中か
+     * 閾値超過の通知で開始し、updateMemoryPressure で解除される
+     */
+    public static boolean isUnderMemoryPressure() {
+        return underPressure;
+    }
+
+    /**
+     * 縮退モードを解除できるか確認（縮退中にサーバースレッドから定期的に呼ぶ）
+     * GC後のヒープ使用率が 閾値 - memoryPressureRecoveryMargin を下回ったら解除する
+     * 開始と解除の閾値をずらして、閾値付近で切り替えを繰り返さないようにする
+     * @return 縮退モード中ならtrue
+     */
+    public static boolean updateMemoryPressure() {
+        if (!underPressure) {
+            return false;
+        }
+
+        VEConfigSnapshot config = VEConfig.snapshot();
+        double recoveryThreshold = config.memoryUsageWarningThreshold() - config.memoryPressureRecoveryMargin();
+        double usage = getHeapUsageAfterGC();
+
+        if (!config.enableMemoryPressureDegradation() || usage < recoveryThreshold) {
+            underPressure = false;
+            LOGGER.info("VE Memory pressure relieved: heap usage after GC is {}%, leaving degraded mode",
+                    String.format("%.1f", usage * 100));
+        }
+        return underPressure;
+    }
+
+    /**
+     * GC後のヒープ使用率（監視対象のメモリプールのうち最も高いもの）
+     */
+    private static double getHeapUsageAfterGC() {
+        double highest = 0.0;
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (!isTenuredHeapPool(pool)) {
+                continue;
+            }
+
+            MemoryUsage usage = pool.getCollectionUsage();
+            if (usage == null) {
+                usage = pool.getUsage();
+            }
+            if (usage.getMax() > 0) {
+                highest = Math.max(highest, (double) usage.getUsed() / usage.getMax());
+            }
+        }
+        return highest;
+    }
+
+    /**
+     * Config変更時に呼ぶ
+     * 最大容量を計算し直し、メモリ使用量の閾値を設定し直す
+     */
+    public static void reload() {
+        BigEnergy capacity = recalculateMaxVE();
+        updateUsageThresholds();
+        if (VEConfig.snapshot().enableDebugLogging()) {
+            LOGGER.info("VE Memory Manager recalculated max capacity: {}", capacity);
+        }
     }
 
     /**
@@ -191,7 +339,7 @@ public class VEMemoryManager {
                     getMaxMemoryMB(),
                     getUsagePercentage(),
                     getMaxVECapacity(),
-                    VEConfig.COMMON.enableMemoryBasedLimits.get() ? "Enabled" : "Disabled"
+                    VEConfig.snapshot().enableMemoryBasedLimits() ? "Enabled" : "Disabled"
             );
         }
     }
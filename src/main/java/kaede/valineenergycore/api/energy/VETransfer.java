@@ -0,0 +1,115 @@
+package kaede.valineenergycore.api.energy;
+
+import javax.annotation.Nonnull;
+
+/**
+ * コンテナ間のエネルギー転送ユーティリティ
+ *
+ * 転送量は min(上限, 送信元の抽出可能量, 送信先の受け入れ可能量) を送信先へのシミュレーションで確定させ、
+ * 各コンテナに対して extract / insert を一回ずつ実行する（onContentsChanged も一回にまとまる）
+ * 送信先が確定量より少なくしか受け取らなかった場合は、残りを送信元へ戻す（抽出量 = 挿入量）
+ *
+ * 転送量の計算から実行までの間に他のスレッドからコンテナが変更されないこと
+ * （サーバースレッドから呼ぶこと）
+ */
+public final class VETransfer {
+
+    private VETransfer() {
+    }
+
+    /**
+     * source から target へ最大 max まで転送
+     * @return 実際に転送されたVE量
+     */
+    @Nonnull
+    public static BigEnergy transfer(@Nonnull IVEContainer source, @Nonnull IVEContainer target, @Nonnull BigEnergy max) {
+        if (max.isZero() || source == target) {
+            return BigEnergy.ZERO;
+        }
+
+        BigEnergy amount = max.min(source.getMaxExtract()).min(target.getMaxInsert());
+        if (amount.isZero()) {
+            return BigEnergy.ZERO;
+        }
+        // getMaxInsert は目安なので、実際に受け取れる量をシミュレーションで確定させる
+        amount = target.insert(amount, IVEContainer.Action.SIMULATE);
+        if (amount.isZero()) {
+            return BigEnergy.ZERO;
+        }
+
+        BigEnergy extracted = source.extract(amount, IVEContainer.Action.EXECUTE);
+        if (extracted.isZero()) {
+            return BigEnergy.ZERO;
+        }
+        BigEnergy inserted = target.insert(extracted, IVEContainer.Action.EXECUTE);
+        refund(source, extracted.subtract(inserted));
+        return inserted;
+    }
+
+    /**
+     * source から複数の target へ、配列の順に最大 max まで転送
+     * 送信元からの抽出は合計量で一回だけ行う
+     * @return 実際に転送されたVE量の合計
+     */
+    @Nonnull
+    public static BigEnergy transferMany(@Nonnull IVEContainer source, @Nonnull IVEContainer[] targets, @Nonnull BigEnergy max) {
+        if (max.isZero() || targets.length == 0) {
+            return BigEnergy.ZERO;
+        }
+
+        BigEnergy remaining = max.min(source.getMaxExtract());
+        if (remaining.isZero()) {
+            return BigEnergy.ZERO;
+        }
+
+        // 各送信先の受け入れ量を一度だけ求める
+        BigEnergy[] amounts = new BigEnergy[targets.length];
+        BigEnergyAccumulator total = new BigEnergyAccumulator();
+        for (int i = 0; i < targets.length && !remaining.isZero(); i++) {
+            IVEContainer target = targets[i];
+            if (target == null || target == source) {
+                continue;
+            }
+            BigEnergy amount = remaining.min(target.getMaxInsert());
+            if (!amount.isZero()) {
+                amount = target.insert(amount, IVEContainer.Action.SIMULATE);
+            }
+            if (!amount.isZero()) {
+                amounts[i] = amount;
+                total.add(amount);
+                remaining = remaining.subtract(amount);
+            }
+        }
+
+        BigEnergy planned = total.toBigEnergy();
+        if (planned.isZero()) {
+            return BigEnergy.ZERO;
+        }
+
+        BigEnergy left = source.extract(planned, IVEContainer.Action.EXECUTE);
+        BigEnergyAccumulator transferred = new BigEnergyAccumulator();
+        for (int i = 0; i < targets.length && !left.isZero(); i++) {
+            if (amounts[i] != null) {
+                BigEnergy inserted = targets[i].insert(amounts[i].min(left), IVEContainer.Action.EXECUTE);
+                transferred.add(inserted);
+                left = left.subtract(inserted);
+            }
+        }
+        refund(source, left);
+        return transferred.toBigEnergy();
+    }
+
+    /**
+     * 送信先が受け取らなかった分を送信元へ戻す
+     * 入力レート制限などで insert で戻しきれない分は setEnergy で直接戻す（エネルギーを消さない）
+     */
+    private static void refund(@Nonnull IVEContainer source, @Nonnull BigEnergy leftover) {
+        if (leftover.isZero()) {
+            return;
+        }
+        BigEnergy rest = leftover.subtract(source.insert(leftover, IVEContainer.Action.EXECUTE));
+        if (!rest.isZero()) {
+            source.setEnergy(source.getEnergy().add(rest));
+        }
+    }
+}
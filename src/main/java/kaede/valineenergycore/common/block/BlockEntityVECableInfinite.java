@@ -1,9 +1,15 @@
 package kaede.valineenergycore.common.block;
 
 import kaede.valineenergycore.api.energy.BigEnergy;
+import kaede.valineenergycore.api.energy.BigEnergyAccumulator;
 import kaede.valineenergycore.api.energy.IVEContainer;
+import kaede.valineenergycore.api.energy.VEChangeBatcher;
+import kaede.valineenergycore.api.energy.VETransfer;
+import kaede.valineenergycore.common.capabilities.VECapabilities;
 import kaede.valineenergycore.common.capabilities.VECapabilityProvider;
 import kaede.valineenergycore.common.capabilities.energy.InfiniteVEContainer;
+import kaede.valineenergycore.common.content.network.VENetwork;
+import kaede.valineenergycore.common.content.network.VENetworkRegistry;
 import kaede.valineenergycore.common.registration.VERegistration;
 import net.minecraft.core.BlockPos;
 import net.minecraft.core.Direction;
@@ -84,6 +90,16 @@ public class BlockEntityVECableInfinite extends BlockEntity {
             }
 
             if (be != null) {
+                // VE Capabilityがあれば変換なしで転送する
+                IVEContainer container = be.getCapability(VECapabilities.VE_CONTAINER, direction.getOpposite())
+                        .resolve().orElse(null);
+                if (container != null) {
+                    if (container.canReceive()) {
+                        adjacentAcceptors.add(new AdjacentAcceptor(null, container, direction));
+                    }
+                    continue;
+                }
+
                 LazyOptional<IEnergyStorage> energyCap = be.getCapability(
                         ForgeCapabilities.ENERGY,
                         direction.getOpposite()
@@ -91,7 +107,7 @@ public class BlockEntityVECableInfinite extends BlockEntity {
 
                 energyCap.ifPresent(storage -> {
                     if (storage.canReceive()) {
-                        adjacentAcceptors.add(new AdjacentAcceptor(storage, direction));
+                        adjacentAcceptors.add(new AdjacentAcceptor(storage, null, direction));
                     }
                 });
             }
@@ -110,29 +126,48 @@ public class BlockEntityVECableInfinite extends BlockEntity {
 
         // 各受容側の受け入れ可能量を計算
         List<EnergyDemand> demands = new ArrayList<>();
-        BigEnergy totalDemand = BigEnergy.ZERO;
+        BigEnergyAccumulator totalDemandSum = new BigEnergyAccumulator();
 
         for (AdjacentAcceptor acceptor : adjacentAcceptors) {
+            if (acceptor.container() != null) {
+                BigEnergy demandVE = acceptor.container().getMaxInsert();
+                if (!demandVE.isZero()) {
+                    demands.add(new EnergyDemand(acceptor, demandVE, 0));
+                    totalDemandSum.add(demandVE);
+                }
+                continue;
+            }
+
             IEnergyStorage storage = acceptor.storage();
             int maxReceiveFE = storage.getMaxEnergyStored() - storage.getEnergyStored();
 
             if (maxReceiveFE > 0) {
                 BigEnergy demandVE = convertFromFE(maxReceiveFE);
                 demands.add(new EnergyDemand(acceptor, demandVE, maxReceiveFE));
-                totalDemand = totalDemand.add(demandVE);
+                totalDemandSum.add(demandVE);
             }
         }
 
+        BigEnergy totalDemand = totalDemandSum.toBigEnergy();
+
         if (demands.isEmpty() || totalDemand.isZero()) {
             return;
         }
 
         // 供給量が需要量より多い場合は全て送る
         if (available.greaterOrEqual(totalDemand)) {
+            List<IVEContainer> veTargets = new ArrayList<>();
             for (EnergyDemand demand : demands) {
+                if (demand.acceptor().container() != null) {
+                    veTargets.add(demand.acceptor().container());
+                    continue;
+                }
                 int sent = demand.acceptor().storage().receiveEnergy(demand.maxReceiveFE(), false);
                 buffer.extract(convertFromFE(sent), IVEContainer.Action.EXECUTE);
             }
+            if (!veTargets.isEmpty()) {
+                VETransfer.transferMany(buffer, veTargets.toArray(new IVEContainer[0]), buffer.getEnergy());
+            }
         } else {
             // 供給量が不足している場合は比例配分
             for (EnergyDemand demand : demands) {
@@ -140,9 +175,13 @@ public class BlockEntityVECableInfinite extends BlockEntity {
                 double ratio = demand.demandVE().doubleValue() / totalDemand.doubleValue();
                 BigEnergy toSend = available.multiply(ratio);
 
-                // FEに変換して送信（doubleを使って小数点以下も考慮）
-                double toSendFE = toSend.doubleValue() * getVEToFERatio();
-                int toSendFEInt = (int) Math.min(toSendFE, demand.maxReceiveFE());
+                if (demand.acceptor().container() != null) {
+                    VETransfer.transfer(buffer, demand.acceptor().container(), toSend);
+                    continue;
+                }
+
+                // FEに変換して送信
+                int toSendFEInt = Math.min(convertToFE(toSend), demand.maxReceiveFE());
 
                 if (toSendFEInt > 0) {
                     int sent = demand.acceptor().storage().receiveEnergy(toSendFEInt, false);
@@ -160,18 +199,25 @@ public class BlockEntityVECableInfinite extends BlockEntity {
     }
 
     /**
-     * VEからFEへの変換比率を取得
+     * VEからFEへの変換
      */
-    private double getVEToFERatio() {
-        long numerator = kaede.valineenergycore.common.config.VEConfig.COMMON.veToForgeEnergyNumerator.get();
-        long denominator = kaede.valineenergycore.common.config.VEConfig.COMMON.veToForgeEnergyDenominator.get();
-        return (double) numerator / denominator;
+    private int convertToFE(BigEnergy ve) {
+        return kaede.valineenergycore.common.capabilities.VECapabilities.convertToForgeEnergy(ve);
     }
 
     public InfiniteVEContainer getBuffer() {
         return buffer;
     }
 
+    /**
+     * バッファの変更通知（tickの終わりに一回だけ呼ばれる）
+     */
+    private void onBufferChanged() {
+        if (!this.remove) {
+            setChanged();
+        }
+    }
+
     // ========== Capability ==========
 
     @Nonnull
@@ -224,6 +270,15 @@ public class BlockEntityVECableInfinite extends BlockEntity {
 
     // ========== ライフサイクル ==========
 
+    @Override
+    public void onLoad() {
+        super.onLoad();
+        if (level != null && !level.isClientSide) {
+            // 分配で1tickに何度も変わるので、変更通知はtickごとにまとめる
+            buffer.setOnContentsChanged(VEChangeBatcher.coalesced(this::onBufferChanged));
+        }
+    }
+
     @Override
     public void setRemoved() {
         super.setRemoved();
@@ -237,6 +292,20 @@ public class BlockEntityVECableInfinite extends BlockEntity {
         scanAdjacentAcceptors();
     }
 
+    /**
+     * 隣接ブロックが変更された時の処理
+     * 定期スキャンを待たずにAcceptorを更新する
+     */
+    public void onNeighborChanged(BlockPos neighborPos) {
+        scanAdjacentAcceptors();
+        ticksSinceLastScan = 0;
+
+        VENetwork network = VENetworkRegistry.getNetworkAt(level, worldPosition);
+        if (network != null) {
+            network.onNeighborChanged(neighborPos);
+        }
+    }
+
     public void onRemove() {
         // 削除時の処理
         adjacentAcceptors.clear();
@@ -244,7 +313,10 @@ public class BlockEntityVECableInfinite extends BlockEntity {
 
     // ========== ヘルパークラス ==========
 
-    private record AdjacentAcceptor(IEnergyStorage storage, Direction direction) {}
+    /**
+     * storage と container のどちらか一方だけが設定される
+     */
+    private record AdjacentAcceptor(@Nullable IEnergyStorage storage, @Nullable IVEContainer container, Direction direction) {}
 
     private record EnergyDemand(
             AdjacentAcceptor acceptor,
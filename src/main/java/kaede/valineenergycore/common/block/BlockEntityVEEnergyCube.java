@@ -1,5 +1,6 @@
 package kaede.valineenergycore.common.block;
 
+import kaede.valineenergycore.api.energy.VEChangeBatcher;
 import kaede.valineenergycore.common.capabilities.VECapabilityProvider;
 import kaede.valineenergycore.common.capabilities.energy.InfiniteVEContainer;
 import kaede.valineenergycore.common.registration.VERegistration;
@@ -10,6 +11,7 @@ import net.minecraft.network.protocol.Packet;
 import net.minecraft.network.protocol.game.ClientGamePacketListener;
 import net.minecraft.network.protocol.game.ClientboundBlockEntityDataPacket;
 import net.minecraft.world.level.Level;
+import net.minecraft.world.level.block.Block;
 import net.minecraft.world.level.block.entity.BlockEntity;
 import net.minecraft.world.level.block.state.BlockState;
 import net.minecraftforge.common.capabilities.Capability;
@@ -51,6 +53,16 @@ public class BlockEntityVEEnergyCube extends BlockEntity {
         return buffer;
     }
 
+    /**
+     * バッファの変更通知（tickの終わりに一回だけ呼ばれる）
+     */
+    private void onBufferChanged() {
+        if (!this.remove && level != null) {
+            setChanged();
+            level.sendBlockUpdated(worldPosition, getBlockState(), getBlockState(), Block.UPDATE_CLIENTS);
+        }
+    }
+
     // ========== Capability ==========
 
     @Nonnull
@@ -91,7 +103,9 @@ public class BlockEntityVEEnergyCube extends BlockEntity {
 
     @Override
     public CompoundTag getUpdateTag() {
-        return super.getUpdateTag();
+        CompoundTag tag = super.getUpdateTag();
+        saveAdditional(tag);
+        return tag;
     }
 
     @Nullable
@@ -102,6 +116,15 @@ public class BlockEntityVEEnergyCube extends BlockEntity {
 
     // ========== ライフサイクル ==========
 
+    @Override
+    public void onLoad() {
+        super.onLoad();
+        if (level != null && !level.isClientSide) {
+            // 変更通知はtickごとにまとめる（setChanged と同期を1tickに一回にする）
+            buffer.setOnContentsChanged(VEChangeBatcher.coalesced(this::onBufferChanged));
+        }
+    }
+
     @Override
     public void setRemoved() {
         super.setRemoved();
@@ -127,7 +127,7 @@ public class BlockVECableInfinite extends Block implements EntityBlock {
             // ネットワークのAcceptorを更新
             BlockEntity be = level.getBlockEntity(pos);
             if (be instanceof BlockEntityVECableInfinite cableBE) {
-                // TODO: Network update
+                cableBE.onNeighborChanged(fromPos);
             }
         }
     }
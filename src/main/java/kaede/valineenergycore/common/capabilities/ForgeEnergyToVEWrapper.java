@@ -55,6 +55,18 @@ public class ForgeEnergyToVEWrapper implements IVEContainer {
         return storage.canReceive();
     }
 
+    @Nonnull
+    @Override
+    public BigEnergy getMaxInsert() {
+        return VECapabilities.convertFromForgeEnergy(storage.receiveEnergy(Integer.MAX_VALUE, true));
+    }
+
+    @Nonnull
+    @Override
+    public BigEnergy getMaxExtract() {
+        return VECapabilities.convertFromForgeEnergy(storage.extractEnergy(Integer.MAX_VALUE, true));
+    }
+
     @Nonnull
     @Override
     public BigEnergy insert(@Nonnull BigEnergy energy, Action action) {
@@ -65,4 +65,16 @@ public class RestrictedVEContainer implements IVEContainer {
         }
         return wrapped.extract(energy, action);
     }
+
+    @Nonnull
+    @Override
+    public BigEnergy getMaxInsert() {
+        return canInput ? wrapped.getMaxInsert() : BigEnergy.ZERO;
+    }
+
+    @Nonnull
+    @Override
+    public BigEnergy getMaxExtract() {
+        return canOutput ? wrapped.getMaxExtract() : BigEnergy.ZERO;
+    }
 }
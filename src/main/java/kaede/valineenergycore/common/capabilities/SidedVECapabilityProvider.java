@@ -23,6 +23,7 @@ public class SidedVECapabilityProvider implements ICapabilityProvider, INBTSeria
     private final boolean canInput;
     private final boolean canOutput;
 
+    private final LazyOptional<IVEContainer> veCapability;
     private final LazyOptional<IEnergyStorage> forgeEnergyCapability;
 
     /**
@@ -42,6 +43,7 @@ public class SidedVECapabilityProvider implements ICapabilityProvider, INBTSeria
 
         // 入出力制限を考慮したラッパーを作成
         IVEContainer restrictedContainer = new RestrictedVEContainer(container, canInput, canOutput);
+        this.veCapability = LazyOptional.of(() -> restrictedContainer);
         this.forgeEnergyCapability = LazyOptional.of(() -> new VEToForgeEnergyWrapper(restrictedContainer));
     }
 
@@ -62,6 +64,10 @@ public class SidedVECapabilityProvider implements ICapabilityProvider, INBTSeria
             }
         }
 
+        if (cap == VECapabilities.VE_CONTAINER) {
+            return veCapability.cast();
+        }
+
         if (cap == net.minecraftforge.common.capabilities.ForgeCapabilities.ENERGY) {
             return forgeEnergyCapability.cast();
         }
@@ -82,6 +88,7 @@ public class SidedVECapabilityProvider implements ICapabilityProvider, INBTSeria
     }
 
     public void invalidate() {
+        veCapability.invalidate();
         forgeEnergyCapability.invalidate();
     }
 }
\ No newline at end of file
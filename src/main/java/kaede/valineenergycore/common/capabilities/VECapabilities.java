@@ -1,7 +1,12 @@
 package kaede.valineenergycore.common.capabilities;
 
 import kaede.valineenergycore.api.energy.BigEnergy;
+import kaede.valineenergycore.api.energy.IVEContainer;
 import kaede.valineenergycore.common.config.VEConfig;
+import net.minecraftforge.common.capabilities.Capability;
+import net.minecraftforge.common.capabilities.CapabilityManager;
+import net.minecraftforge.common.capabilities.CapabilityToken;
+import net.minecraftforge.common.capabilities.RegisterCapabilitiesEvent;
 
 /**
  * ValineEnergy の Capability 完全実装
@@ -9,35 +14,46 @@ import kaede.valineenergycore.common.config.VEConfig;
  */
 public class VECapabilities {
 
+    /**
+     * VE独自のCapability
+     * BigEnergy のまま受け渡すので、Forge Energy (int) への変換と丸めが発生しない
+     */
+    public static final Capability<IVEContainer> VE_CONTAINER = CapabilityManager.get(new CapabilityToken<>() {});
+
+    /**
+     * Capabilityの登録（MODイベントバス）
+     */
+    public static void register(RegisterCapabilitiesEvent event) {
+        event.register(IVEContainer.class);
+    }
+
+    /**
+     * Forge Energy → VE の変換比率を取得
+     */
+    public static VEConversionRatio getForgeEnergyToVERatio() {
+        return VEConfig.snapshot().forgeEnergyToVE();
+    }
+
+    /**
+     * VE → Forge Energy の変換比率を取得
+     */
+    public static VEConversionRatio getVEToForgeEnergyRatio() {
+        return VEConfig.snapshot().veToForgeEnergy();
+    }
+
     /**
      * Forge Energy から VE への変換
      */
     public static BigEnergy convertFromForgeEnergy(int forgeEnergy) {
-        long numerator = VEConfig.COMMON.forgeEnergyToVENumerator.get();
-        long denominator = VEConfig.COMMON.forgeEnergyToVEDenominator.get();
-
         // forgeEnergy * (numerator / denominator)
-        BigEnergy energy = BigEnergy.create(forgeEnergy);
-        energy = energy.multiply(numerator);
-        if (denominator != 1) {
-            energy = energy.divide(denominator);
-        }
-        return energy;
+        return getForgeEnergyToVERatio().apply(forgeEnergy);
     }
 
     /**
      * VE を Forge Energy に変換
      */
     public static int convertToForgeEnergy(BigEnergy ve) {
-        long numerator = VEConfig.COMMON.veToForgeEnergyNumerator.get();
-        long denominator = VEConfig.COMMON.veToForgeEnergyDenominator.get();
-
-        // ve * (numerator / denominator)
-        double result = ve.doubleValue() * numerator / (double) denominator;
-
-        // int の範囲に制限
-        if (result > Integer.MAX_VALUE) return Integer.MAX_VALUE;
-        if (result < 0) return 0;
-        return (int) result;
+        // ve * (numerator / denominator) を int の範囲に制限
+        return getVEToForgeEnergyRatio().applyClampedToInt(ve);
     }
-}
\ No newline at end of file
+}
@@ -32,16 +32,16 @@ public class VECapabilityProvider implements ICapabilityProvider, INBTSerializab
     @Nonnull
     @Override
     public <T> LazyOptional<T> getCapability(@Nonnull Capability<T> cap, @Nullable Direction side) {
-        // VE Capability
+        // VE Capability（変換なし）
+        if (cap == VECapabilities.VE_CONTAINER) {
+            return veCapability.cast();
+        }
+
+        // Forge Energy（他MODとの互換用）
         if (cap == net.minecraftforge.common.capabilities.ForgeCapabilities.ENERGY) {
             return forgeEnergyCapability.cast();
         }
 
-        // TODO: VE独自のCapabilityを追加する場合はここに
-        // if (cap == VECapabilities.VE_CONTAINER) {
-        //     return veCapability.cast();
-        // }
-
         return LazyOptional.empty();
     }
 
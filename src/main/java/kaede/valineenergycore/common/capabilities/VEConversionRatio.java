@@ -0,0 +1,170 @@
+package kaede.valineenergycore.common.capabilities;
+
+import kaede.valineenergycore.api.energy.BigEnergy;
+
+import java.math.BigInteger;
+
+/**
+ * エネルギー変換比率 (numerator / denominator) の事前計算済みスナップショット
+ * Config読込時に一度だけ作成し、変換のたびにConfigを読まないようにする
+ *
+ * 比率が 1:1 や 2のべき乗の場合はシフトだけで変換し、
+ * それ以外も double を使わず整数演算で正確に変換する（端数は切り捨て）
+ */
+public final class VEConversionRatio {
+
+    private enum Mode {
+        IDENTITY,
+        SHIFT_LEFT,
+        SHIFT_RIGHT,
+        GENERAL
+    }
+
+    private static final BigInteger INT_MAX = BigInteger.valueOf(Integer.MAX_VALUE);
+
+    private final long numerator;
+    private final long denominator;
+    private final BigInteger bigNumerator;
+    private final BigInteger bigDenominator;
+    private final Mode mode;
+    private final int shift;
+
+    // 変換結果が Integer.MAX_VALUE 以上になる最小の入力値
+    private final BigEnergy intSaturationThreshold;
+
+    private VEConversionRatio(long numerator, long denominator) {
+        long gcd = gcd(numerator, denominator);
+        this.numerator = numerator / gcd;
+        this.denominator = denominator / gcd;
+        this.bigNumerator = BigInteger.valueOf(this.numerator);
+        this.bigDenominator = BigInteger.valueOf(this.denominator);
+
+        if (this.numerator == this.denominator) {
+            this.mode = Mode.IDENTITY;
+            this.shift = 0;
+        } else if (this.denominator == 1L && Long.bitCount(this.numerator) == 1) {
+            this.mode = Mode.SHIFT_LEFT;
+            this.shift = Long.numberOfTrailingZeros(this.numerator);
+        } else if (this.numerator == 1L && Long.bitCount(this.denominator) == 1) {
+            this.mode = Mode.SHIFT_RIGHT;
+            this.shift = Long.numberOfTrailingZeros(this.denominator);
+        } else {
+            this.mode = Mode.GENERAL;
+            this.shift = 0;
+        }
+
+        // ceil(Integer.MAX_VALUE * denominator / numerator)
+        BigInteger threshold = INT_MAX.multiply(bigDenominator)
+                .add(bigNumerator.subtract(BigInteger.ONE))
+                .divide(bigNumerator);
+        this.intSaturationThreshold = BigEnergy.create(threshold);
+    }
+
+    /**
+     * 変換比率を作成
+     * @param numerator 分子（1以上）
+     * @param denominator 分母（1以上）
+     */
+    public static VEConversionRatio of(long numerator, long denominator) {
+        if (numerator <= 0 || denominator <= 0) {
+            throw new IllegalArgumentException("Conversion ratio must be positive: " + numerator + "/" + denominator);
+        }
+        return new VEConversionRatio(numerator, denominator);
+    }
+
+    // ========== 変換 ==========
+
+    /**
+     * amount * numerator / denominator を計算
+     */
+    public BigEnergy apply(long amount) {
+        if (amount >= 0) {
+            switch (mode) {
+                case IDENTITY:
+                    return BigEnergy.create(amount);
+                case SHIFT_LEFT:
+                    if (Long.numberOfLeadingZeros(amount) > shift) {
+                        return BigEnergy.create(amount << shift);
+                    }
+                    return BigEnergy.create(BigInteger.valueOf(amount).shiftLeft(shift));
+                case SHIFT_RIGHT:
+                    return BigEnergy.create(amount >>> shift);
+                default:
+                    // Math.multiplyExact と同じ判定でlongに収まるか確認
+                    long high = Math.multiplyHigh(amount, numerator);
+                    long low = amount * numerator;
+                    if (high == 0L && low >= 0L) {
+                        return BigEnergy.create(low / denominator);
+                    }
+                    break;
+            }
+        }
+        return BigEnergy.create(BigInteger.valueOf(amount).multiply(bigNumerator).divide(bigDenominator));
+    }
+
+    /**
+     * amount * numerator / denominator を計算
+     */
+    public BigEnergy apply(BigEnergy amount) {
+        if (amount.fitsInLong()) {
+            return apply(amount.longValue());
+        }
+
+        BigInteger value = amount.toBigInteger();
+        if (value.signum() >= 0) {
+            switch (mode) {
+                case IDENTITY:
+                    return amount;
+                case SHIFT_LEFT:
+                    return BigEnergy.create(value.shiftLeft(shift));
+                case SHIFT_RIGHT:
+                    return BigEnergy.create(value.shiftRight(shift));
+                default:
+                    break;
+            }
+        }
+        return BigEnergy.create(value.multiply(bigNumerator).divide(bigDenominator));
+    }
+
+    /**
+     * 変換結果を 0～Integer.MAX_VALUE の範囲に制限して返す（Forge Energy用）
+     */
+    public int applyClampedToInt(BigEnergy amount) {
+        // 上限を超えるかは事前計算した閾値との比較だけで判定できる
+        if (amount.greaterOrEqual(intSaturationThreshold)) {
+            return Integer.MAX_VALUE;
+        }
+        if (amount.smallerOrEqual(BigEnergy.ZERO)) {
+            return 0;
+        }
+        return (int) apply(amount).longValue();
+    }
+
+    // ========== Getter ==========
+
+    public long getNumerator() {
+        return numerator;
+    }
+
+    public long getDenominator() {
+        return denominator;
+    }
+
+    public boolean isIdentity() {
+        return mode == Mode.IDENTITY;
+    }
+
+    @Override
+    public String toString() {
+        return numerator + "/" + denominator + " (" + mode + ")";
+    }
+
+    private static long gcd(long a, long b) {
+        while (b != 0) {
+            long t = a % b;
+            a = b;
+            b = t;
+        }
+        return a;
+    }
+}
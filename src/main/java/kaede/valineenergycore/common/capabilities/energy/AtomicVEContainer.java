@@ -0,0 +1,122 @@
+package kaede.valineenergycore.common.capabilities.energy;
+
+import kaede.valineenergycore.api.energy.BigEnergy;
+import kaede.valineenergycore.api.energy.IVEContainer;
+import javax.annotation.Nonnull;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * 複数スレッドから同時に insert / extract できるVEコンテナ
+ * BigEnergy は不変なので、保持量の参照をCASで差し替えて更新する（ロックを使わない）
+ *
+ * insert / extract は読み取った保持量から結果を計算し、
+ * 他のスレッドに先に更新されていれば読み直してやり直す
+ */
+public class AtomicVEContainer implements IVEContainer {
+
+    private final AtomicReference<BigEnergy> stored = new AtomicReference<>(BigEnergy.ZERO);
+    protected final BigEnergy maxEnergy;
+    protected volatile Runnable onContentsChangedCallback;
+
+    /**
+     * @param maxEnergy 最大容量
+     */
+    public AtomicVEContainer(@Nonnull BigEnergy maxEnergy) {
+        this.maxEnergy = maxEnergy;
+    }
+
+    /**
+     * ビルダーパターンでコールバック設定
+     * コールバックは更新したスレッドで呼ばれる
+     * （サーバースレッドで受け取る場合は VEChangeBatcher.coalesced で包む）
+     */
+    public AtomicVEContainer setOnContentsChanged(Runnable callback) {
+        this.onContentsChangedCallback = callback;
+        return this;
+    }
+
+    @Nonnull
+    @Override
+    public BigEnergy getEnergy() {
+        return stored.get();
+    }
+
+    @Override
+    public void setEnergy(@Nonnull BigEnergy energy) {
+        BigEnergy newEnergy = energy.min(maxEnergy).max(BigEnergy.ZERO);
+        BigEnergy previous = stored.getAndSet(newEnergy);
+        if (!previous.equals(newEnergy)) {
+            onContentsChanged();
+        }
+    }
+
+    @Nonnull
+    @Override
+    public BigEnergy getMaxEnergy() {
+        return maxEnergy;
+    }
+
+    @Nonnull
+    @Override
+    public BigEnergy insert(@Nonnull BigEnergy energy, Action action) {
+        if (energy.isZero()) {
+            return BigEnergy.ZERO;
+        }
+
+        while (true) {
+            BigEnergy current = stored.get();
+            BigEnergy toInsert = energy.min(maxEnergy.subtract(current));
+            if (toInsert.isZero() || action.simulate()) {
+                return toInsert;
+            }
+            if (stored.compareAndSet(current, current.add(toInsert))) {
+                onContentsChanged();
+                return toInsert;
+            }
+        }
+    }
+
+    @Nonnull
+    @Override
+    public BigEnergy extract(@Nonnull BigEnergy energy, Action action) {
+        if (energy.isZero()) {
+            return BigEnergy.ZERO;
+        }
+
+        while (true) {
+            BigEnergy current = stored.get();
+            BigEnergy toExtract = energy.min(current);
+            if (toExtract.isZero() || action.simulate()) {
+                return toExtract;
+            }
+            if (stored.compareAndSet(current, current.subtract(toExtract))) {
+                onContentsChanged();
+                return toExtract;
+            }
+        }
+    }
+
+    @Nonnull
+    @Override
+    public BigEnergy getNeeded() {
+        return maxEnergy.subtract(stored.get());
+    }
+
+    @Override
+    public boolean canReceive() {
+        return stored.get().smallerThan(maxEnergy);
+    }
+
+    @Override
+    public boolean canExtract() {
+        return !stored.get().isZero();
+    }
+
+    @Override
+    public void onContentsChanged() {
+        Runnable callback = onContentsChangedCallback;
+        if (callback != null) {
+            callback.run();
+        }
+    }
+}
@@ -32,6 +32,18 @@ public class ItemVEContainer extends BasicVEContainer {
         return super.extract(limited, action);
     }
 
+    @Nonnull
+    @Override
+    public BigEnergy getMaxInsert() {
+        return super.getMaxInsert().min(maxTransferRate);
+    }
+
+    @Nonnull
+    @Override
+    public BigEnergy getMaxExtract() {
+        return super.getMaxExtract().min(maxTransferRate);
+    }
+
     /**
      * 充電率を取得（0.0～1.0）
      */
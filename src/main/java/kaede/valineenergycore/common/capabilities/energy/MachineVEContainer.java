@@ -30,6 +30,12 @@ public class MachineVEContainer extends BasicVEContainer {
         return super.insert(limited, action);
     }
 
+    @Nonnull
+    @Override
+    public BigEnergy getMaxInsert() {
+        return super.getMaxInsert().min(maxInputRate);
+    }
+
     /**
      * 機械を動かすのに十分なエネルギーがあるか
      */
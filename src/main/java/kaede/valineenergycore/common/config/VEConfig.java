@@ -1,6 +1,7 @@
 package kaede.valineenergycore.common.config;
 
 import kaede.valineenergycore.api.energy.BigEnergy;
+import kaede.valineenergycore.common.content.network.DistributionMode;
 import net.minecraftforge.common.ForgeConfigSpec;
 import org.apache.commons.lang3.tuple.Pair;
 
@@ -21,6 +22,31 @@ public class VEConfig {
         COMMON_SPEC = commonPair.getRight();
     }
 
+    // Config読込/再読込時に差し替えられる読み込み済みの値
+    private static volatile VEConfigSnapshot snapshot;
+
+    /**
+     * 現在のConfigスナップショットを取得
+     * 実行時のコードは COMMON の get() ではなくこちらを使う
+     */
+    public static VEConfigSnapshot snapshot() {
+        VEConfigSnapshot current = snapshot;
+        if (current == null) {
+            current = rebuildSnapshot();
+        }
+        return current;
+    }
+
+    /**
+     * スナップショットを作り直して公開する
+     * ModConfigEvent.Loading / Reloading 時に呼ぶ
+     */
+    public static VEConfigSnapshot rebuildSnapshot() {
+        VEConfigSnapshot rebuilt = VEConfigSnapshot.from(COMMON);
+        snapshot = rebuilt;
+        return rebuilt;
+    }
+
     public static class Common {
 
         // ========== エネルギー変換設定 ==========
@@ -40,6 +66,8 @@ public class VEConfig {
         public final ForgeConfigSpec.ConfigValue<String> vePerMB;
         public final ForgeConfigSpec.ConfigValue<String> minimumGuaranteedCapacity;
         public final ForgeConfigSpec.DoubleValue memoryUsageWarningThreshold;
+        public final ForgeConfigSpec.BooleanValue enableMemoryPressureDegradation;
+        public final ForgeConfigSpec.DoubleValue memoryPressureRecoveryMargin;
 
         // ========== ケーブル設定 ==========
 
@@ -68,9 +96,10 @@ public class VEConfig {
         public final ForgeConfigSpec.IntValue maxTransmittersPerNetwork;
         public final ForgeConfigSpec.IntValue maxAcceptorsPerNetwork;
         public final ForgeConfigSpec.BooleanValue enableNetworkMerging;
-        public final ForgeConfigSpec.IntValue networkUpdateInterval;
         public final ForgeConfigSpec.BooleanValue enableEnergyLoss;
         public final ForgeConfigSpec.DoubleValue energyLossPercentPerBlock;
+        public final ForgeConfigSpec.EnumValue<DistributionMode> distributionMode;
+        public final ForgeConfigSpec.IntValue roundRobinAcceptorsPerTick;
 
         // ========== パフォーマンス設定 ==========
 
@@ -78,8 +107,11 @@ public class VEConfig {
 
         public final ForgeConfigSpec.BooleanValue enableMultithreadedNetworks;
         public final ForgeConfigSpec.IntValue maxNetworkCalculationsPerTick;
+        public final ForgeConfigSpec.IntValue networkTickBudgetMicros;
         public final ForgeConfigSpec.BooleanValue enableNetworkCaching;
-        public final ForgeConfigSpec.IntValue cacheUpdateInterval;
+        public final ForgeConfigSpec.IntValue acceptorUpdateInterval;
+        public final ForgeConfigSpec.BooleanValue enableNetworkSleeping;
+        public final ForgeConfigSpec.IntValue demandPollMaxBackoffTicks;
 
         // ========== デバッグ設定 ==========
 
@@ -177,6 +209,22 @@ public class VEConfig {
                     )
                     .defineInRange("memoryUsageWarningThreshold", 0.9, 0.0, 1.0);
 
+            enableMemoryPressureDegradation = builder
+                    .comment(
+                            "Switch VE networks into a degraded mode while heap usage after GC exceeds memoryUsageWarningThreshold",
+                            "Degraded networks rescan acceptors less often, sleep as soon as they are idle",
+                            "and release their reusable work arrays"
+                    )
+                    .define("enableMemoryPressureDegradation", true);
+
+            memoryPressureRecoveryMargin = builder
+                    .comment(
+                            "How far below memoryUsageWarningThreshold heap usage must fall before leaving degraded mode (0.0 - 0.5)",
+                            "Prevents flapping between modes around the threshold",
+                            "Default: 0.1 (leave degraded mode below 80% when the threshold is 90%)"
+                    )
+                    .defineInRange("memoryPressureRecoveryMargin", 0.1, 0.0, 0.5);
+
             builder.pop();
 
             // ========== ケーブル設定 ==========
@@ -305,14 +353,6 @@ public class VEConfig {
                     )
                     .define("enableNetworkMerging", true);
 
-            networkUpdateInterval = builder
-                    .comment(
-                            "How often to update network acceptors (in ticks)",
-                            "Lower = more responsive, Higher = better performance",
-                            "Default: 20 (1 second)"
-                    )
-                    .defineInRange("networkUpdateInterval", 20, 1, 600);
-
             enableEnergyLoss = builder
                     .comment(
                             "Enable energy loss over distance",
@@ -328,6 +368,25 @@ public class VEConfig {
                     )
                     .defineInRange("energyLossPercentPerBlock", 0.001, 0.0, 0.1);
 
+            distributionMode = builder
+                    .comment(
+                            "How a network splits energy when acceptors need more than it has",
+                            "PROPORTIONAL: each acceptor gets a share proportional to its demand",
+                            "WATER_FILLING: small demands are filled first, the rest is split evenly (max-min fair)",
+                            "PRIORITY: higher priority acceptors are filled first, proportional within a priority",
+                            "ROUND_ROBIN: only roundRobinAcceptorsPerTick acceptors are served per tick, rotating",
+                            "FILL_FIRST: acceptors are filled one at a time in priority order",
+                            "Default: PROPORTIONAL"
+                    )
+                    .defineEnum("distributionMode", DistributionMode.PROPORTIONAL);
+
+            roundRobinAcceptorsPerTick = builder
+                    .comment(
+                            "Maximum number of acceptors polled per network per tick in ROUND_ROBIN mode",
+                            "Default: 64"
+                    )
+                    .defineInRange("roundRobinAcceptorsPerTick", 64, 1, 100000);
+
             builder.pop();
 
             // ========== パフォーマンス設定 ==========
@@ -355,25 +414,55 @@ public class VEConfig {
                     .comment(
                             "Maximum number of networks to calculate per tick",
                             "Remaining networks will be calculated in next tick",
-                            "Set to -1 for unlimited",
+                            "Sleeping or unloaded networks are not counted",
+                            "Set to -1 or 0 for unlimited",
                             "Default: -1"
                     )
                     .defineInRange("maxNetworkCalculationsPerTick", -1, -1, 10000);
 
+            networkTickBudgetMicros = builder
+                    .comment(
+                            "Maximum time (in microseconds) spent ticking networks per server tick",
+                            "Remaining networks will be calculated in next tick",
+                            "Deferred networks catch up on the ticks they missed",
+                            "Set to -1 for unlimited",
+                            "Default: -1"
+                    )
+                    .defineInRange("networkTickBudgetMicros", -1, -1, 1000000);
+
             enableNetworkCaching = builder
                     .comment(
                             "Enable caching of network calculations",
+                            "Queued acceptor changes are batched every acceptorUpdateInterval ticks",
                             "Improves performance but may cause slight delays in updates"
                     )
                     .define("enableNetworkCaching", true);
 
-            cacheUpdateInterval = builder
+            acceptorUpdateInterval = builder
+                    .comment(
+                            "How often queued acceptor changes (placed or replaced blocks next to cables) are applied (in ticks)",
+                            "Networks never rescan all acceptors periodically; only the changed positions are checked",
+                            "Only applies if enableNetworkCaching is true (otherwise changes are applied every tick)",
+                            "Default: 1"
+                    )
+                    .defineInRange("acceptorUpdateInterval", 1, 1, 100);
+
+            enableNetworkSleeping = builder
+                    .comment(
+                            "Let idle networks sleep instead of polling acceptors every tick",
+                            "A network sleeps when its buffer is empty or no acceptor needs energy,",
+                            "and wakes when energy is inserted or an adjacent block changes"
+                    )
+                    .define("enableNetworkSleeping", true);
+
+            demandPollMaxBackoffTicks = builder
                     .comment(
-                            "How often to update cached network data (in ticks)",
-                            "Only applies if enableNetworkCaching is true",
-                            "Default: 5"
+                            "Maximum interval (in ticks) between demand polls while all acceptors are full",
+                            "The interval starts at 1 tick and doubles on every poll that finds no demand",
+                            "Only applies if enableNetworkSleeping is true",
+                            "Default: 32"
                     )
-                    .defineInRange("cacheUpdateInterval", 5, 1, 100);
+                    .defineInRange("demandPollMaxBackoffTicks", 32, 1, 1200);
 
             builder.pop();
 
@@ -0,0 +1,116 @@
+package kaede.valineenergycore.common.config;
+
+import kaede.valineenergycore.api.energy.BigEnergy;
+import kaede.valineenergycore.common.capabilities.VEConversionRatio;
+import kaede.valineenergycore.common.content.network.DistributionMode;
+
+import java.math.BigInteger;
+
+/**
+ * VEConfig の値を読み込み済みの状態で保持する不変スナップショット
+ * Config読込/再読込時に一度だけ作成し、実行時のコードはここから値を読む
+ * （ForgeConfigSpec の get() や文字列の BigInteger 変換を毎回行わないため）
+ */
+public record VEConfigSnapshot(
+        // エネルギー変換設定
+        VEConversionRatio veToForgeEnergy,
+        VEConversionRatio forgeEnergyToVE,
+
+        // メモリベースシステム設定
+        boolean enableMemoryBasedLimits,
+        BigInteger vePerMB,
+        BigEnergy minimumGuaranteedCapacity,
+        double memoryUsageWarningThreshold,
+        boolean enableMemoryPressureDegradation,
+        double memoryPressureRecoveryMargin,
+
+        // ケーブル設定
+        BigEnergy basicCableCapacity,
+        BigEnergy basicCableTransferRate,
+        BigEnergy advancedCableCapacity,
+        BigEnergy advancedCableTransferRate,
+        BigEnergy eliteCableCapacity,
+        BigEnergy eliteCableTransferRate,
+        BigEnergy ultimateCableCapacity,
+        BigEnergy ultimateCableTransferRate,
+
+        // ネットワーク設定
+        int maxTransmittersPerNetwork,
+        int maxAcceptorsPerNetwork,
+        boolean enableNetworkMerging,
+        boolean enableEnergyLoss,
+        double energyLossPercentPerBlock,
+        DistributionMode distributionMode,
+        int roundRobinAcceptorsPerTick,
+
+        // パフォーマンス設定
+        boolean enableMultithreadedNetworks,
+        int maxNetworkCalculationsPerTick,
+        int networkTickBudgetMicros,
+        boolean enableNetworkCaching,
+        int acceptorUpdateInterval,
+        boolean enableNetworkSleeping,
+        int demandPollMaxBackoffTicks,
+
+        // デバッグ設定
+        boolean enableDebugLogging,
+        boolean showMemoryWarnings,
+        boolean logNetworkOperations,
+        boolean showEnergyTransferParticles,
+        boolean enableNetworkVisualization
+) {
+
+    /**
+     * 現在のConfig値からスナップショットを作成
+     */
+    public static VEConfigSnapshot from(VEConfig.Common config) {
+        return new VEConfigSnapshot(
+                VEConversionRatio.of(
+                        config.veToForgeEnergyNumerator.get(),
+                        config.veToForgeEnergyDenominator.get()
+                ),
+                VEConversionRatio.of(
+                        config.forgeEnergyToVENumerator.get(),
+                        config.forgeEnergyToVEDenominator.get()
+                ),
+
+                config.enableMemoryBasedLimits.get(),
+                config.getVEPerMB(),
+                config.getMinimumGuaranteedCapacity(),
+                config.memoryUsageWarningThreshold.get(),
+                config.enableMemoryPressureDegradation.get(),
+                config.memoryPressureRecoveryMargin.get(),
+
+                config.getBasicCableCapacity(),
+                config.getBasicCableTransferRate(),
+                config.getAdvancedCableCapacity(),
+                config.getAdvancedCableTransferRate(),
+                config.getEliteCableCapacity(),
+                config.getEliteCableTransferRate(),
+                config.getUltimateCableCapacity(),
+                config.getUltimateCableTransferRate(),
+
+                config.maxTransmittersPerNetwork.get(),
+                config.maxAcceptorsPerNetwork.get(),
+                config.enableNetworkMerging.get(),
+                config.enableEnergyLoss.get(),
+                config.energyLossPercentPerBlock.get(),
+                config.distributionMode.get(),
+                config.roundRobinAcceptorsPerTick.get(),
+
+                config.enableMultithreadedNetworks.get(),
+                config.maxNetworkCalculationsPerTick.get(),
+                config.networkTickBudgetMicros.get(),
+                config.enableNetworkCaching.get(),
+                config.acceptorUpdateInterval.get(),
+                config.enableNetworkSleeping.get(),
+                config.demandPollMaxBackoffTicks.get(),
+
+                config.enableDebugLogging.get(),
+                config.showMemoryWarnings.get(),
+                config.logNetworkOperations.get(),
+                config.showEnergyTransferParticles.get(),
+                config.enableNetworkVisualization.get()
+        );
+    }
+}
@@ -1,26 +1,85 @@
 package kaede.valineenergycore.common.content.network;
 
+import kaede.valineenergycore.api.energy.IVEContainer;
 import net.minecraft.core.BlockPos;
+import net.minecraftforge.common.util.LazyOptional;
 import net.minecraftforge.energy.IEnergyStorage;
 
+import javax.annotation.Nullable;
+
 /**
  * Acceptor (エネルギー受容側) のデータ
+ * VE Capabilityを持つAcceptorは container、それ以外は Forge Energy の storage で受け渡す
  */
 
 public class AcceptorData {
     private final BlockPos position;
+    @Nullable
     private final IEnergyStorage storage;
+    @Nullable
+    private final IVEContainer container;
+    @Nullable
+    private final LazyOptional<?> capability;
+    // 分配の優先度（大きいほど優先、既定は0）
+    private int priority;
 
     public AcceptorData(BlockPos position, IEnergyStorage storage) {
+        this(position, storage, null);
+    }
+
+    public AcceptorData(BlockPos position, IEnergyStorage storage, @Nullable LazyOptional<IEnergyStorage> capability) {
+        this(position, storage, capability, 0);
+    }
+
+    public AcceptorData(BlockPos position, IEnergyStorage storage, @Nullable LazyOptional<IEnergyStorage> capability, int priority) {
         this.position = position;
         this.storage = storage;
+        this.container = null;
+        this.capability = capability;
+        this.priority = priority;
+    }
+
+    public AcceptorData(BlockPos position, IVEContainer container, @Nullable LazyOptional<IVEContainer> capability, int priority) {
+        this.position = position;
+        this.storage = null;
+        this.container = container;
+        this.capability = capability;
+        this.priority = priority;
     }
 
     public BlockPos getPosition() {
         return position;
     }
 
+    /**
+     * Forge Energy の受け口（VE Capabilityで接続している場合はnull）
+     */
+    @Nullable
     public IEnergyStorage getStorage() {
         return storage;
     }
-}
\ No newline at end of file
+
+    /**
+     * VE の受け口（Forge Energy で接続している場合はnull）
+     */
+    @Nullable
+    public IVEContainer getContainer() {
+        return container;
+    }
+
+    /**
+     * 取得元のCapability（無効化の検知に使用）
+     */
+    @Nullable
+    public LazyOptional<?> getCapability() {
+        return capability;
+    }
+
+    public int getPriority() {
+        return priority;
+    }
+
+    public void setPriority(int priority) {
+        this.priority = priority;
+    }
+}
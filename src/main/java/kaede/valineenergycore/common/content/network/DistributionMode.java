@@ -0,0 +1,27 @@
+package kaede.valineenergycore.common.content.network;
+
+import java.util.function.Supplier;
+
+/**
+ * Configで選択できる分配方法
+ */
+public enum DistributionMode {
+    PROPORTIONAL(ProportionalDistribution::new),
+    WATER_FILLING(WaterFillingDistribution::new),
+    PRIORITY(PriorityDistribution::new),
+    ROUND_ROBIN(RoundRobinDistribution::new),
+    FILL_FIRST(FillFirstDistribution::new);
+
+    private final Supplier<DistributionStrategy> factory;
+
+    DistributionMode(Supplier<DistributionStrategy> factory) {
+        this.factory = factory;
+    }
+
+    /**
+     * ネットワーク用の新しいインスタンスを作成
+     */
+    public DistributionStrategy createStrategy() {
+        return factory.get();
+    }
+}
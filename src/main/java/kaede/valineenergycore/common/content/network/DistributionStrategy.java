@@ -0,0 +1,37 @@
+package kaede.valineenergycore.common.content.network;
+
+import kaede.valineenergycore.api.energy.BigEnergy;
+
+/**
+ * 供給が需要に足りない場合のエネルギー分配方法
+ * 作業用の配列やカーソルなどの状態を持てるよう、インスタンスはネットワークごとに作成する
+ * （distribute は computeAllocations から呼ばれるので、ネットワーク外の状態には触れないこと）
+ */
+public interface DistributionStrategy {
+
+    /**
+     * 今回のtickで需要を確認するAcceptor数（既定は全て）
+     * 需要の確認はAcceptorごとにCapabilityを呼ぶので、巨大なネットワークではここで上限を設ける
+     */
+    default int pollCount(int acceptorCount) {
+        return acceptorCount;
+    }
+
+    /**
+     * 需要の確認を始めるAcceptorの位置（pollCount が全数未満の場合のみ呼ばれる）
+     */
+    default int pollStart(int acceptorCount) {
+        return 0;
+    }
+
+    /**
+     * 各Acceptorへの分配量を計算
+     * @param count Acceptor数
+     * @param demands 各Acceptorの需要（VE）
+     * @param priorities 各Acceptorの優先度
+     * @param totalDemand 需要の合計
+     * @param available 分配できる量（totalDemand 未満）
+     * @param shares 計算結果の書き込み先（各要素は需要以下、合計は available）
+     */
+    void distribute(int count, BigEnergy[] demands, int[] priorities, BigEnergy totalDemand, BigEnergy available, BigEnergy[] shares);
+}
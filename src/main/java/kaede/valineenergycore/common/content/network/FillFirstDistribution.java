@@ -0,0 +1,33 @@
+package kaede.valineenergycore.common.content.network;
+
+import kaede.valineenergycore.api.energy.BigEnergy;
+
+/**
+ * 先頭から順に満たす分配
+ * 優先度の高い順（同じ優先度なら登録順）に1つずつ需要を満たし、供給が尽きたらそこで終わる
+ * 少しずつ全体に配るより、一部の機械を確実に動かしたい場合に使う
+ */
+public class FillFirstDistribution implements DistributionStrategy {
+
+    private int[] order = new int[8];
+    private long[] packed = new long[8];
+
+    @Override
+    public void distribute(int count, BigEnergy[] demands, int[] priorities, BigEnergy totalDemand, BigEnergy available, BigEnergy[] shares) {
+        if (order.length < count) {
+            int length = Math.max(count, order.length * 2);
+            order = new int[length];
+            packed = new long[length];
+        }
+
+        IndexSort.sortByPriorityDescending(order, priorities, count, packed);
+
+        BigEnergy remaining = available;
+        for (int k = 0; k < count; k++) {
+            int i = order[k];
+            BigEnergy share = demands[i].min(remaining);
+            shares[i] = share;
+            remaining = remaining.subtract(share);
+        }
+    }
+}
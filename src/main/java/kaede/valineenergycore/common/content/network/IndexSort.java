@@ -0,0 +1,111 @@
+package kaede.valineenergycore.common.content.network;
+
+import kaede.valineenergycore.api.energy.BigEnergy;
+
+import java.util.Arrays;
+
+/**
+ * BigEnergy の配列をキーにしてインデックス配列を並べ替える
+ * （Integer へのボクシングや Comparator の生成を避けるため）
+ */
+final class IndexSort {
+
+    private static final int INSERTION_SORT_THRESHOLD = 16;
+
+    private IndexSort() {
+    }
+
+    /**
+     * order[0..count) をキーの昇順に並べ替える
+     */
+    static void sortAscending(int[] order, BigEnergy[] keys, int count) {
+        quickSort(order, keys, 0, count - 1);
+    }
+
+    private static void quickSort(int[] order, BigEnergy[] keys, int left, int right) {
+        while (right - left >= INSERTION_SORT_THRESHOLD) {
+            BigEnergy pivot = keys[order[(left + right) >>> 1]];
+            int i = left;
+            int j = right;
+
+            while (i <= j) {
+                while (keys[order[i]].smallerThan(pivot)) i++;
+                while (keys[order[j]].greaterThan(pivot)) j--;
+                if (i <= j) {
+                    swap(order, i++, j--);
+                }
+            }
+
+            // 小さい方を再帰、大きい方をループで処理（再帰の深さを抑える）
+            if (j - left < right - i) {
+                quickSort(order, keys, left, j);
+                left = i;
+            } else {
+                quickSort(order, keys, i, right);
+                right = j;
+            }
+        }
+
+        for (int i = left + 1; i <= right; i++) {
+            int index = order[i];
+            BigEnergy key = keys[index];
+            int j = i - 1;
+            while (j >= left && keys[order[j]].greaterThan(key)) {
+                order[j + 1] = order[j];
+                j--;
+            }
+            order[j + 1] = index;
+        }
+    }
+
+    /**
+     * order[0..k) がキーの大きいもの k 個になるよう並べ替える（クイックセレクト）
+     */
+    static void selectLargest(int[] order, BigEnergy[] keys, int count, int k) {
+        int left = 0;
+        int right = count - 1;
+
+        while (left < right) {
+            BigEnergy pivot = keys[order[(left + right) >>> 1]];
+            int i = left;
+            int j = right;
+
+            while (i <= j) {
+                while (keys[order[i]].greaterThan(pivot)) i++;
+                while (keys[order[j]].smallerThan(pivot)) j--;
+                if (i <= j) {
+                    swap(order, i++, j--);
+                }
+            }
+
+            if (k - 1 <= j) {
+                right = j;
+            } else if (k - 1 >= i) {
+                left = i;
+            } else {
+                return;
+            }
+        }
+    }
+
+    /**
+     * order[0..count) を優先度の高い順（同じ優先度ならインデックス順）に並べる
+     * @param packed 作業用配列（count 以上の長さ）
+     */
+    static void sortByPriorityDescending(int[] order, int[] priorities, int count, long[] packed) {
+        // 上位32bitに優先度、下位32bitに反転したインデックスを詰めて long のまま昇順ソート
+        for (int i = 0; i < count; i++) {
+            packed[i] = ((long) priorities[i] << 32) | (0xFFFFFFFFL - i);
+        }
+        Arrays.sort(packed, 0, count);
+        for (int k = 0; k < count; k++) {
+            order[k] = (int) (0xFFFFFFFFL - (packed[count - 1 - k] & 0xFFFFFFFFL));
+        }
+    }
+
+    private static void swap(int[] order, int a, int b) {
+        int tmp = order[a];
+        order[a] = order[b];
+        order[b] = tmp;
+    }
+}
@@ -0,0 +1,165 @@
+package kaede.valineenergycore.common.content.network;
+
+import javax.annotation.Nullable;
+import java.util.Arrays;
+
+/**
+ * BlockPos.asLong() -> V のオープンアドレス法ハッシュマップ
+ * BlockPos をキーとしてボクシングせず、1ディメンション分の座標索引として使う
+ *
+ * スレッドセーフではない（サーバースレッドからのみ操作すること）
+ */
+final class LongPositionMap<V> {
+
+    private static final int DEFAULT_CAPACITY = 64;
+    private static final float LOAD_FACTOR = 0.5f;
+
+    // 空きスロットは values[i] == null で判定する（キーは0も含めて全ての値を取り得るため）
+    private long[] keys;
+    private Object[] values;
+    private int mask;
+    private int size;
+    private int resizeThreshold;
+
+    LongPositionMap() {
+        allocate(DEFAULT_CAPACITY);
+    }
+
+    private void allocate(int capacity) {
+        keys = new long[capacity];
+        values = new Object[capacity];
+        mask = capacity - 1;
+        resizeThreshold = (int) (capacity * LOAD_FACTOR);
+    }
+
+    /**
+     * 座標のハッシュ値（下位ビットに偏らないよう混ぜる）
+     */
+    private static int hash(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+
+    private int indexOf(long key) {
+        int index = hash(key) & mask;
+        while (values[index] != null) {
+            if (keys[index] == key) {
+                return index;
+            }
+            index = (index + 1) & mask;
+        }
+        return -1;
+    }
+
+    // ========== 操作 ==========
+
+    @Nullable
+    @SuppressWarnings("unchecked")
+    V get(long key) {
+        int index = indexOf(key);
+        return index < 0 ? null : (V) values[index];
+    }
+
+    /**
+     * 座標に値を登録
+     * @return 以前に登録されていた値
+     */
+    @Nullable
+    @SuppressWarnings("unchecked")
+    V put(long key, V value) {
+        int index = hash(key) & mask;
+        while (values[index] != null) {
+            if (keys[index] == key) {
+                V previous = (V) values[index];
+                values[index] = value;
+                return previous;
+            }
+            index = (index + 1) & mask;
+        }
+
+        keys[index] = key;
+        values[index] = value;
+        if (++size > resizeThreshold) {
+            rehash(values.length << 1);
+        }
+        return null;
+    }
+
+    /**
+     * 座標に指定した値が登録されている場合のみ削除
+     * @return 削除した場合true
+     */
+    boolean remove(long key, V expected) {
+        int index = indexOf(key);
+        if (index < 0 || values[index] != expected) {
+            return false;
+        }
+        removeAt(index);
+        return true;
+    }
+
+    /**
+     * 後方シフト削除（墓標を残さないので探索長が伸び続けない）
+     */
+    private void removeAt(int index) {
+        int gap = index;
+        int current = (index + 1) & mask;
+
+        while (values[current] != null) {
+            int home = hash(keys[current]) & mask;
+            // home が (gap, current] の範囲外なら gap に詰められる
+            if (((current - home) & mask) >= ((current - gap) & mask)) {
+                keys[gap] = keys[current];
+                values[gap] = values[current];
+                gap = current;
+            }
+            current = (current + 1) & mask;
+        }
+
+        values[gap] = null;
+        size--;
+    }
+
+    private void rehash(int newCapacity) {
+        long[] oldKeys = keys;
+        Object[] oldValues = values;
+        allocate(newCapacity);
+
+        for (int i = 0; i < oldValues.length; i++) {
+            if (oldValues[i] != null) {
+                int index = hash(oldKeys[i]) & mask;
+                while (values[index] != null) {
+                    index = (index + 1) & mask;
+                }
+                keys[index] = oldKeys[i];
+                values[index] = oldValues[i];
+            }
+        }
+    }
+
+    /**
+     * 要素数に対して大きすぎる配列を縮める（大量に削除された後など）
+     */
+    void trim() {
+        int capacity = DEFAULT_CAPACITY;
+        while (size > (int) (capacity * LOAD_FACTOR)) {
+            capacity <<= 1;
+        }
+        if (capacity < values.length) {
+            rehash(capacity);
+        }
+    }
+
+    int size() {
+        return size;
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    void clear() {
+        Arrays.fill(values, null);
+        size = 0;
+    }
+}
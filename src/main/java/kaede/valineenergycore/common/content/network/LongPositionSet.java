@@ -0,0 +1,107 @@
+package kaede.valineenergycore.common.content.network;
+
+import java.util.Arrays;
+
+/**
+ * BlockPos.asLong() の集合（オープンアドレス法）
+ * BlockPos をボクシングせずに探索済み座標を記録するために使う
+ *
+ * スレッドセーフではない
+ */
+final class LongPositionSet {
+
+    private static final int DEFAULT_CAPACITY = 16;
+    private static final float LOAD_FACTOR = 0.5f;
+
+    // 空きスロットを表す値（この値自体は containsEmptyKey で別管理する）
+    private static final long EMPTY = Long.MIN_VALUE;
+
+    private long[] keys;
+    private int mask;
+    private int size;
+    private int resizeThreshold;
+    private boolean containsEmptyKey;
+
+    LongPositionSet() {
+        allocate(DEFAULT_CAPACITY);
+    }
+
+    private void allocate(int capacity) {
+        keys = new long[capacity];
+        Arrays.fill(keys, EMPTY);
+        mask = capacity - 1;
+        resizeThreshold = (int) (capacity * LOAD_FACTOR);
+    }
+
+    private static int hash(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+
+    /**
+     * 座標を追加
+     * @return 新しく追加された場合true
+     */
+    boolean add(long key) {
+        if (key == EMPTY) {
+            if (containsEmptyKey) {
+                return false;
+            }
+            containsEmptyKey = true;
+            size++;
+            return true;
+        }
+
+        int index = hash(key) & mask;
+        while (keys[index] != EMPTY) {
+            if (keys[index] == key) {
+                return false;
+            }
+            index = (index + 1) & mask;
+        }
+
+        keys[index] = key;
+        if (++size > resizeThreshold) {
+            rehash(keys.length << 1);
+        }
+        return true;
+    }
+
+    boolean contains(long key) {
+        if (key == EMPTY) {
+            return containsEmptyKey;
+        }
+
+        int index = hash(key) & mask;
+        while (keys[index] != EMPTY) {
+            if (keys[index] == key) {
+                return true;
+            }
+            index = (index + 1) & mask;
+        }
+        return false;
+    }
+
+    private void rehash(int newCapacity) {
+        long[] oldKeys = keys;
+        allocate(newCapacity);
+
+        for (long key : oldKeys) {
+            if (key != EMPTY) {
+                int index = hash(key) & mask;
+                while (keys[index] != EMPTY) {
+                    index = (index + 1) & mask;
+                }
+                keys[index] = key;
+            }
+        }
+    }
+
+    int size() {
+        return size;
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+}
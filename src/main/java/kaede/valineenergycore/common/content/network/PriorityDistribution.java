@@ -0,0 +1,76 @@
+package kaede.valineenergycore.common.content.network;
+
+import kaede.valineenergycore.api.energy.BigEnergy;
+import kaede.valineenergycore.api.energy.BigEnergyAccumulator;
+
+import java.util.Arrays;
+
+/**
+ * 優先度による段階的な分配
+ * 優先度の高い段から順に需要を満たし、満たしきれない段の中では需要に比例して分ける
+ * それより低い段には分配しない
+ */
+public class PriorityDistribution implements DistributionStrategy {
+
+    private final ProportionalDistribution tierDistribution = new ProportionalDistribution();
+
+    private int[] order = new int[8];
+    private long[] packed = new long[8];
+    private BigEnergy[] tierDemands = new BigEnergy[8];
+    private BigEnergy[] tierShares = new BigEnergy[8];
+
+    @Override
+    public void distribute(int count, BigEnergy[] demands, int[] priorities, BigEnergy totalDemand, BigEnergy available, BigEnergy[] shares) {
+        if (order.length < count) {
+            int length = Math.max(count, order.length * 2);
+            order = new int[length];
+            packed = new long[length];
+            tierDemands = new BigEnergy[length];
+            tierShares = new BigEnergy[length];
+        }
+
+        IndexSort.sortByPriorityDescending(order, priorities, count, packed);
+
+        BigEnergy remaining = available;
+        int tierStart = 0;
+
+        while (tierStart < count) {
+            // 同じ優先度の範囲を求める
+            int priority = priorities[order[tierStart]];
+            int tierEnd = tierStart + 1;
+            while (tierEnd < count && priorities[order[tierEnd]] == priority) {
+                tierEnd++;
+            }
+
+            int tierCount = tierEnd - tierStart;
+            BigEnergyAccumulator tierTotal = new BigEnergyAccumulator();
+            for (int k = 0; k < tierCount; k++) {
+                tierDemands[k] = demands[order[tierStart + k]];
+                tierTotal.add(tierDemands[k]);
+            }
+
+            if (tierTotal.compareTo(remaining) <= 0) {
+                // この段は全て満たせる
+                for (int k = tierStart; k < tierEnd; k++) {
+                    shares[order[k]] = demands[order[k]];
+                }
+                remaining = remaining.subtract(tierTotal.toBigEnergy());
+            } else {
+                // この段で供給が尽きるので段内で比例配分し、以降の段は0
+                tierDistribution.distribute(tierCount, tierDemands, priorities, tierTotal.toBigEnergy(), remaining, tierShares);
+                for (int k = 0; k < tierCount; k++) {
+                    shares[order[tierStart + k]] = tierShares[k];
+                }
+                for (int k = tierEnd; k < count; k++) {
+                    shares[order[k]] = BigEnergy.ZERO;
+                }
+                Arrays.fill(tierDemands, 0, tierCount, null);
+                Arrays.fill(tierShares, 0, tierCount, null);
+                return;
+            }
+
+            Arrays.fill(tierDemands, 0, tierCount, null);
+            tierStart = tierEnd;
+        }
+    }
+}
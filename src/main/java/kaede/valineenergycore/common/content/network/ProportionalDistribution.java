@@ -0,0 +1,48 @@
+package kaede.valineenergycore.common.content.network;
+
+import kaede.valineenergycore.api.energy.BigEnergy;
+import kaede.valineenergycore.api.energy.BigEnergyAccumulator;
+
+import java.util.Arrays;
+
+/**
+ * 最大剰余方式（Hamilton方式）による比例配分
+ * 各Acceptorに floor(available * demand / total) を割り当て、
+ * 割り切れずに余った分を剰余の大きい順に1ずつ配る
+ * 整数演算のみで、available の全量を過不足なく配分する
+ */
+public class ProportionalDistribution implements DistributionStrategy {
+
+    private BigEnergy[] remainders = new BigEnergy[8];
+    private int[] order = new int[8];
+
+    @Override
+    public void distribute(int count, BigEnergy[] demands, int[] priorities, BigEnergy totalDemand, BigEnergy available, BigEnergy[] shares) {
+        if (remainders.length < count) {
+            remainders = new BigEnergy[Math.max(count, remainders.length * 2)];
+            order = new int[remainders.length];
+        }
+
+        BigEnergyAccumulator allocated = new BigEnergyAccumulator();
+
+        for (int i = 0; i < count; i++) {
+            BigEnergy[] quotientAndRemainder = available.multiply(demands[i]).divideAndRemainder(totalDemand);
+            shares[i] = quotientAndRemainder[0];
+            remainders[i] = quotientAndRemainder[1];
+            order[i] = i;
+            allocated.add(quotientAndRemainder[0]);
+        }
+
+        // 余りは Acceptor 数未満になる
+        int leftover = (int) available.subtract(allocated.toBigEnergy()).longValue();
+        if (leftover > 0) {
+            IndexSort.selectLargest(order, remainders, count, leftover);
+            for (int k = 0; k < leftover; k++) {
+                int i = order[k];
+                shares[i] = shares[i].add(BigEnergy.ONE);
+            }
+        }
+
+        Arrays.fill(remainders, 0, count, null);
+    }
+}
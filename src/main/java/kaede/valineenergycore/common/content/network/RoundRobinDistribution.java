@@ -0,0 +1,39 @@
+package kaede.valineenergycore.common.content.network;
+
+import kaede.valineenergycore.api.energy.BigEnergy;
+import kaede.valineenergycore.common.config.VEConfig;
+
+/**
+ * ラウンドロビンによる分配
+ * 1tickに需要を確認するAcceptorを roundRobinAcceptorsPerTick 個までに制限し、
+ * 確認を始める位置をtickごとにずらして全体を順番に回る
+ * 巨大なネットワークでも1tickあたりのコストが一定になり、長い目で見れば公平になる
+ * 確認したAcceptorの間では水位合わせで分ける
+ */
+public class RoundRobinDistribution implements DistributionStrategy {
+
+    private final WaterFillingDistribution windowDistribution = new WaterFillingDistribution();
+
+    // 次に需要を確認するAcceptorの位置
+    private int cursor = 0;
+
+    @Override
+    public int pollCount(int acceptorCount) {
+        return Math.min(acceptorCount, VEConfig.snapshot().roundRobinAcceptorsPerTick());
+    }
+
+    @Override
+    public int pollStart(int acceptorCount) {
+        if (cursor >= acceptorCount) {
+            cursor = 0;
+        }
+        int start = cursor;
+        cursor = (int) ((start + (long) pollCount(acceptorCount)) % acceptorCount);
+        return start;
+    }
+
+    @Override
+    public void distribute(int count, BigEnergy[] demands, int[] priorities, BigEnergy totalDemand, BigEnergy available, BigEnergy[] shares) {
+        windowDistribution.distribute(count, demands, priorities, totalDemand, available, shares);
+    }
+}
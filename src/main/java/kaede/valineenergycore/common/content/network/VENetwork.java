@@ -1,16 +1,23 @@
 package kaede.valineenergycore.common.content.network;
 
 import kaede.valineenergycore.api.energy.BigEnergy;
+import kaede.valineenergycore.api.energy.BigEnergyAccumulator;
+import kaede.valineenergycore.api.energy.IVEContainer;
+import kaede.valineenergycore.api.energy.VEMemoryManager;
 import kaede.valineenergycore.common.config.VEConfig;
+import kaede.valineenergycore.common.config.VEConfigSnapshot;
 import com.mojang.logging.LogUtils;
 import net.minecraft.core.BlockPos;
 import net.minecraft.core.Direction;
+import net.minecraft.world.level.ChunkPos;
 import net.minecraft.world.level.Level;
 import net.minecraft.world.level.block.entity.BlockEntity;
 import net.minecraftforge.common.capabilities.ForgeCapabilities;
 import net.minecraftforge.common.util.LazyOptional;
 import net.minecraftforge.energy.IEnergyStorage;
 import org.slf4j.Logger;
+
+import javax.annotation.Nullable;
 import java.util.*;
 
 /**
@@ -20,8 +27,18 @@ public class VENetwork {
 
     private static final Logger LOGGER = LogUtils.getLogger();
 
+    private static final int INITIAL_PLAN_CAPACITY = 8;
+
+    // メモリ逼迫による縮退中はAcceptor差分更新の間隔をこの倍率で伸ばす
+    private static final int DEGRADED_UPDATE_INTERVAL_MULTIPLIER = 4;
+
     protected final Set<VETransmitter> transmitters = new HashSet<>();
     protected final Map<BlockPos, AcceptorData> acceptors = new HashMap<>();
+    // 需要確認用のAcceptorの配列（acceptorsが変わった時だけ作り直す）
+    private AcceptorData[] acceptorArray = new AcceptorData[0];
+    private boolean acceptorArrayDirty = false;
+    // 座標ごとに設定された優先度（Acceptorが再登録されても引き継ぐ）
+    private final Map<BlockPos, Integer> acceptorPriorities = new HashMap<>();
 
     protected BigEnergy buffer = BigEnergy.ZERO;
     protected BigEnergy capacity = BigEnergy.ZERO;
@@ -33,22 +50,86 @@ public class VENetwork {
     // 更新間隔カウンター
     private int tickCounter = 0;
 
-    // キャッシュ
-    private boolean acceptorsCacheDirty = true;
-    private int lastCacheUpdate = 0;
+    // マージで吸収された場合の吸収先（登録済みCapabilityリスナーの転送用）
+    @Nullable
+    private VENetwork mergedInto;
+
+    // VENetworkTickerのキューに入っているか（サーバースレッドからのみ操作）
+    boolean scheduled = false;
+
+    // スケジューラーが最後にこのネットワークをtickした時刻（VENetworkTickerのtick数）
+    private long lastTickedAt = -1;
+    // 今回のtickで取り戻す経過tick数（後回しにされた分を含む）
+    private int catchUpTicks = 1;
+
+    // スリープ状態
+    private enum SleepState {
+        AWAKE,
+        // バッファが空（emit で起きる）
+        NO_ENERGY,
+        // 全てのAcceptorが満杯（Acceptorの変化か、バックオフ期限で起きる）
+        NO_DEMAND
+    }
+
+    private SleepState sleepState = SleepState.AWAKE;
+    // NO_DEMAND 時に次に需要を確認するtick（tickCounter基準）
+    private int nextDemandPollTick = 0;
+    // 需要確認の間隔（需要が無い間は倍々に伸ばす）
+    private int demandPollBackoff = 1;
+    // 需要が見つからないまま続けて確認したAcceptorの数（一部ずつ確認する分配方法用）
+    private int idlePolledAcceptors = 0;
+    // エネルギーロスを最後に適用したtick（スリープ中の分は起きた時にまとめて適用）
+    private int lastLossTick = 0;
+
+    // キャッシュ（addTransmitterで差分的に構築されるので初期状態はクリーン）
+    private boolean acceptorsCacheDirty = false;
+    private int lastAcceptorUpdate = 0;
+
+    // 再確認待ちのAcceptor候補座標（隣接ブロック変更・Capability無効化で追加）
+    private final Set<BlockPos> pendingAcceptorUpdates = new HashSet<>();
+
+    // チャンク（ChunkPos.asLong()）ごとのTransmitter
+    private final Map<Long, Set<VETransmitter>> transmittersByChunk = new HashMap<>();
+    // Transmitterが存在するチャンクのうちアンロードされているもの
+    private final Set<Long> unloadedChunks = new HashSet<>();
+
+    // 2フェーズtickの分配計画（tick間で使い回す）
+    // 需要はtickごとに各Acceptorへ一度だけ問い合わせ、以降はこの配列だけを使う
+    private int plannedCount = 0;
+    private IEnergyStorage[] plannedStorages = new IEnergyStorage[INITIAL_PLAN_CAPACITY];
+    // VE Capabilityで接続しているAcceptor（nullなら plannedStorages を使う）
+    private IVEContainer[] plannedContainers = new IVEContainer[INITIAL_PLAN_CAPACITY];
+    private int[] plannedDemands = new int[INITIAL_PLAN_CAPACITY];
+    private int[] plannedPriorities = new int[INITIAL_PLAN_CAPACITY];
+    private BigEnergy[] plannedDemandsVE = new BigEnergy[INITIAL_PLAN_CAPACITY];
+    private int[] plannedSends = new int[INITIAL_PLAN_CAPACITY];
+    private BigEnergy[] plannedSharesVE = new BigEnergy[INITIAL_PLAN_CAPACITY];
+    // 送信量より少なくしか受け取らなかったAcceptorがいたか
+    private boolean plannedShortfall = false;
+
+    // 分配方法（Configの変更に追従して作り直す）
+    private DistributionMode distributionMode;
+    private DistributionStrategy distributionStrategy;
 
     public VENetwork(Level world) {
+        this(world, UUID.randomUUID());
+    }
+
+    /**
+     * 保存されていたIDでネットワークを作成（SavedDataからの復元用）
+     */
+    VENetwork(Level world, UUID networkId) {
         this.world = world;
-        this.networkId = UUID.randomUUID();
+        this.networkId = networkId;
 
-        if (VEConfig.COMMON.logNetworkOperations.get()) {
+        if (VEConfig.snapshot().logNetworkOperations()) {
             LOGGER.info("Created VENetwork: {}", networkId);
         }
     }
 
     public void addTransmitter(VETransmitter transmitter) {
         // 最大Transmitter数のチェック
-        int maxTransmitters = VEConfig.COMMON.maxTransmittersPerNetwork.get();
+        int maxTransmitters = VEConfig.snapshot().maxTransmittersPerNetwork();
         if (maxTransmitters > 0 && transmitters.size() >= maxTransmitters) {
             LOGGER.warn("Network {} reached maximum transmitter limit: {}",
                     networkId.toString().substring(0, 8), maxTransmitters);
@@ -57,10 +138,14 @@ public class VENetwork {
 
         if (transmitters.add(transmitter)) {
             transmitter.setNetwork(this);
-            recalculateCapacity();
-            markAcceptorsDirty();
+            VENetworkRegistry.trackTransmitter(this, transmitter);
+            trackChunk(transmitter);
+            capacity = capacity.add(transmitter.getCapacity());
+            scanTransmitterFaces(transmitter);
+            wake();
+            VENetworkRegistry.markDirty(world);
 
-            if (VEConfig.COMMON.logNetworkOperations.get()) {
+            if (VEConfig.snapshot().logNetworkOperations()) {
                 LOGGER.debug("Added transmitter to network {}: {} (total: {})",
                         networkId.toString().substring(0, 8),
                         transmitter.getPosition(),
@@ -72,10 +157,12 @@ public class VENetwork {
     public void removeTransmitter(VETransmitter transmitter) {
         if (transmitters.remove(transmitter)) {
             transmitter.setNetwork(null);
-            recalculateCapacity();
-            markAcceptorsDirty();
+            VENetworkRegistry.untrackTransmitter(this, transmitter);
+            untrackChunk(transmitter);
+            capacity = capacity.subtract(transmitter.getCapacity());
+            VENetworkRegistry.markDirty(world);
 
-            if (VEConfig.COMMON.logNetworkOperations.get()) {
+            if (VEConfig.snapshot().logNetworkOperations()) {
                 LOGGER.debug("Removed transmitter from network {}: {} (remaining: {})",
                         networkId.toString().substring(0, 8),
                         transmitter.getPosition(),
@@ -84,45 +171,300 @@ public class VENetwork {
 
             if (transmitters.isEmpty()) {
                 invalidate();
+                return;
+            }
+
+            // このTransmitter経由で接続していたAcceptorだけを再確認
+            BlockPos pos = transmitter.getPosition();
+            for (Direction direction : Direction.values()) {
+                BlockPos adjacentPos = pos.relative(direction);
+                if (acceptors.containsKey(adjacentPos)) {
+                    refreshAcceptorAt(adjacentPos);
+                }
+            }
+        }
+    }
+
+    // ========== チャンク管理 ==========
+
+    private static long chunkOf(BlockPos pos) {
+        return ChunkPos.asLong(pos.getX() >> 4, pos.getZ() >> 4);
+    }
+
+    private void trackChunk(VETransmitter transmitter) {
+        long chunk = chunkOf(transmitter.getPosition());
+        Set<VETransmitter> inChunk = transmittersByChunk.get(chunk);
+        if (inChunk == null) {
+            inChunk = new HashSet<>();
+            transmittersByChunk.put(chunk, inChunk);
+            VENetworkRegistry.trackNetworkChunk(this, chunk);
+        }
+        inChunk.add(transmitter);
+        // Transmitterが読み込まれたならそのチャンクは読み込まれている
+        unloadedChunks.remove(chunk);
+    }
+
+    private void untrackChunk(VETransmitter transmitter) {
+        long chunk = chunkOf(transmitter.getPosition());
+        Set<VETransmitter> inChunk = transmittersByChunk.get(chunk);
+        if (inChunk != null && inChunk.remove(transmitter) && inChunk.isEmpty()) {
+            transmittersByChunk.remove(chunk);
+            unloadedChunks.remove(chunk);
+            VENetworkRegistry.untrackNetworkChunk(this, chunk);
+        }
+    }
+
+    /**
+     * チャンクがアンロードされた時の処理
+     * そのチャンク内のAcceptorを外し、全てのTransmitterのチャンクがアンロードされたら休止する
+     */
+    void onChunkUnloaded(int chunkX, int chunkZ) {
+        long chunk = ChunkPos.asLong(chunkX, chunkZ);
+        if (transmittersByChunk.containsKey(chunk)) {
+            unloadedChunks.add(chunk);
+        }
+
+        if (acceptors.keySet().removeIf(pos -> (pos.getX() >> 4) == chunkX && (pos.getZ() >> 4) == chunkZ)) {
+            acceptorArrayDirty = true;
+        }
+        pendingAcceptorUpdates.removeIf(pos -> (pos.getX() >> 4) == chunkX && (pos.getZ() >> 4) == chunkZ);
+    }
+
+    /**
+     * チャンクが読み込まれた時の処理
+     * そのチャンクに面しているTransmitterの面だけを再確認する
+     */
+    void onChunkLoaded(int chunkX, int chunkZ) {
+        unloadedChunks.remove(ChunkPos.asLong(chunkX, chunkZ));
+
+        queueFacesInChunk(chunkX, chunkZ, chunkX, chunkZ);
+        queueFacesInChunk(chunkX + 1, chunkZ, chunkX, chunkZ);
+        queueFacesInChunk(chunkX - 1, chunkZ, chunkX, chunkZ);
+        queueFacesInChunk(chunkX, chunkZ + 1, chunkX, chunkZ);
+        queueFacesInChunk(chunkX, chunkZ - 1, chunkX, chunkZ);
+        wake();
+    }
+
+    /**
+     * transmitterChunk にあるTransmitterの面のうち、targetChunk 内の座標を再確認待ちにする
+     */
+    private void queueFacesInChunk(int transmitterChunkX, int transmitterChunkZ, int targetChunkX, int targetChunkZ) {
+        Set<VETransmitter> inChunk = transmittersByChunk.get(ChunkPos.asLong(transmitterChunkX, transmitterChunkZ));
+        if (inChunk == null) {
+            return;
+        }
+
+        for (VETransmitter transmitter : inChunk) {
+            BlockPos pos = transmitter.getPosition();
+            for (Direction direction : Direction.values()) {
+                BlockPos adjacentPos = pos.relative(direction);
+                if ((adjacentPos.getX() >> 4) == targetChunkX && (adjacentPos.getZ() >> 4) == targetChunkZ
+                        && !acceptors.containsKey(adjacentPos)) {
+                    pendingAcceptorUpdates.add(adjacentPos);
+                }
             }
         }
     }
 
+    /**
+     * Transmitterのある全てのチャンクがアンロードされていて休止中か
+     */
+    public boolean isSuspended() {
+        return !transmittersByChunk.isEmpty() && unloadedChunks.size() >= transmittersByChunk.size();
+    }
+
     protected void recalculateCapacity() {
-        capacity = BigEnergy.ZERO;
+        BigEnergyAccumulator total = new BigEnergyAccumulator();
         for (VETransmitter transmitter : transmitters) {
-            capacity = capacity.add(transmitter.getCapacity());
+            total.add(transmitter.getCapacity());
         }
+        capacity = total.toBigEnergy();
     }
 
     /**
      * Acceptorsを再スキャンが必要とマーク
+     * 差分更新で追従できない場合の修復用
      */
     protected void markAcceptorsDirty() {
         acceptorsCacheDirty = true;
+        wake();
+    }
+
+    // ========== Acceptorの差分更新 ==========
+
+    /**
+     * Transmitterに隣接するブロックが変更された時に呼ぶ
+     * 実際の再確認は次のtickでまとめて行う
+     */
+    public void onNeighborChanged(BlockPos neighborPos) {
+        if (valid) {
+            pendingAcceptorUpdates.add(neighborPos.immutable());
+            wake();
+        }
+    }
+
+    /**
+     * 再確認待ちのAcceptor候補を処理
+     */
+    private void processPendingAcceptorUpdates() {
+        if (pendingAcceptorUpdates.isEmpty()) {
+            return;
+        }
+
+        // 処理中にCapabilityのリスナーから追加されても安全なようにコピーしてから処理
+        List<BlockPos> positions = new ArrayList<>(pendingAcceptorUpdates);
+        pendingAcceptorUpdates.clear();
+        lastAcceptorUpdate = tickCounter;
+
+        for (BlockPos pos : positions) {
+            refreshAcceptorAt(pos);
+        }
     }
 
     /**
-     * 接続されているAcceptorを更新 - Config対応
+     * 指定Transmitterの6面だけをスキャンしてAcceptorを追加
+     */
+    private void scanTransmitterFaces(VETransmitter transmitter) {
+        BlockPos pos = transmitter.getPosition();
+        for (Direction direction : Direction.values()) {
+            BlockPos adjacentPos = pos.relative(direction);
+            if (!acceptors.containsKey(adjacentPos)) {
+                tryAddAcceptor(adjacentPos, direction, null);
+            }
+        }
+    }
+
+    /**
+     * 1つの座標についてAcceptorを再確認
+     * このネットワークのTransmitterに隣接していなければ削除される
+     */
+    private void refreshAcceptorAt(BlockPos pos) {
+        AcceptorData previous = acceptors.remove(pos);
+        acceptorArrayDirty = true;
+
+        for (Direction direction : Direction.values()) {
+            // direction はAcceptorから見たTransmitterの方向
+            if (VENetworkRegistry.getNetworkAt(world, pos.relative(direction)) == this) {
+                tryAddAcceptor(pos, direction.getOpposite(), previous);
+                return;
+            }
+        }
+    }
+
+    /**
+     * 座標のBlockEntityがエネルギーを受け取れるならAcceptorとして登録
+     * @param direction Transmitterから見たAcceptorの方向
+     * @param previous 以前同じ座標に登録されていたAcceptor（リスナーの重複登録防止用）
+     * @return 登録された場合true
+     */
+    private boolean tryAddAcceptor(BlockPos pos, Direction direction, AcceptorData previous) {
+        int maxAcceptors = VEConfig.snapshot().maxAcceptorsPerNetwork();
+        if (maxAcceptors > 0 && acceptors.size() >= maxAcceptors) {
+            return false;
+        }
+
+        // アンロードされたチャンクを読み込んでしまわないようにする
+        if (!world.isLoaded(pos)) {
+            return false;
+        }
+
+        BlockEntity be = world.getBlockEntity(pos);
+        if (be == null || isTransmitter(be)) {
+            return false;
+        }
+
+        int priority = acceptorPriorities.getOrDefault(pos, 0);
+
+        // VE Capabilityがあればそちらを優先する（BigEnergy のまま変換なしで送れる）
+        LazyOptional<IVEContainer> veCap = be.getCapability(
+                kaede.valineenergycore.common.capabilities.VECapabilities.VE_CONTAINER, direction.getOpposite());
+        IVEContainer container = veCap.resolve().orElse(null);
+        if (container != null) {
+            if (!container.canReceive()) {
+                return false;
+            }
+            acceptors.put(pos, new AcceptorData(pos, container, veCap, priority));
+            acceptorArrayDirty = true;
+            listenForInvalidation(pos, veCap, previous);
+            return true;
+        }
+
+        LazyOptional<IEnergyStorage> energyCap = be.getCapability(ForgeCapabilities.ENERGY, direction.getOpposite());
+        IEnergyStorage storage = energyCap.resolve().orElse(null);
+        if (storage == null || !storage.canReceive()) {
+            return false;
+        }
+
+        acceptors.put(pos, new AcceptorData(pos, storage, energyCap, priority));
+        acceptorArrayDirty = true;
+        listenForInvalidation(pos, energyCap, previous);
+        return true;
+    }
+
+    /**
+     * Capabilityが無効化されたら（BlockEntityの削除など）そのAcceptorだけを更新
+     */
+    private <T> void listenForInvalidation(BlockPos pos, LazyOptional<T> capability, AcceptorData previous) {
+        if (previous == null || previous.getCapability() != capability) {
+            capability.addListener(invalidated -> onAcceptorInvalidated(pos, invalidated));
+        }
+    }
+
+    /**
+     * マージで吸収されていれば最終的な吸収先を返す
+     */
+    VENetwork resolveMerged() {
+        VENetwork network = this;
+        while (!network.valid && network.mergedInto != null) {
+            network = network.mergedInto;
+        }
+        return network;
+    }
+
+    private void onAcceptorInvalidated(BlockPos pos, LazyOptional<?> invalidated) {
+        if (!valid) {
+            // マージで吸収されていればAcceptorごと吸収先に移っている
+            if (mergedInto != null) {
+                mergedInto.onAcceptorInvalidated(pos, invalidated);
+            }
+            return;
+        }
+
+        AcceptorData data = acceptors.get(pos);
+        if (data != null && data.getCapability() == invalidated) {
+            acceptors.remove(pos);
+            acceptorArrayDirty = true;
+            // 置き換え後のBlockEntityを次のtickで確認
+            pendingAcceptorUpdates.add(pos);
+            wake();
+        }
+    }
+
+    /**
+     * 接続されているAcceptorを全面的に再スキャン - Config対応
+     * 通常は差分更新で追従するため、修復が必要な場合のみ使用
      */
     public void updateAcceptors() {
+        Map<BlockPos, AcceptorData> previous = new HashMap<>(acceptors);
         acceptors.clear();
+        acceptorArrayDirty = true;
+        pendingAcceptorUpdates.clear();
 
-        int maxAcceptors = VEConfig.COMMON.maxAcceptorsPerNetwork.get();
-        int acceptorCount = 0;
+        int maxAcceptors = VEConfig.snapshot().maxAcceptorsPerNetwork();
 
+        scan:
         for (VETransmitter transmitter : transmitters) {
-            if (maxAcceptors > 0 && acceptorCount >= maxAcceptors) {
-                if (VEConfig.COMMON.showMemoryWarnings.get()) {
-                    LOGGER.warn("Network {} reached maximum acceptor limit: {}",
-                            networkId.toString().substring(0, 8), maxAcceptors);
-                }
-                break;
-            }
-
             BlockPos pos = transmitter.getPosition();
 
             for (Direction direction : Direction.values()) {
+                if (maxAcceptors > 0 && acceptors.size() >= maxAcceptors) {
+                    if (VEConfig.snapshot().showMemoryWarnings()) {
+                        LOGGER.warn("Network {} reached maximum acceptor limit: {}",
+                                networkId.toString().substring(0, 8), maxAcceptors);
+                    }
+                    break scan;
+                }
+
                 BlockPos adjacentPos = pos.relative(direction);
 
                 // すでに追加済みならスキップ
@@ -130,34 +472,14 @@ public class VENetwork {
                     continue;
                 }
 
-                BlockEntity be = world.getBlockEntity(adjacentPos);
-
-                if (be != null && !isTransmitter(be)) {
-                    LazyOptional<IEnergyStorage> energyCap = be.getCapability(
-                            ForgeCapabilities.ENERGY,
-                            direction.getOpposite()
-                    );
-
-                    energyCap.ifPresent(storage -> {
-                        if (storage.canReceive()) {
-                            acceptors.put(adjacentPos, new AcceptorData(adjacentPos, storage));
-                        }
-                    });
-
-                    if (acceptors.containsKey(adjacentPos)) {
-                        acceptorCount++;
-                        if (maxAcceptors > 0 && acceptorCount >= maxAcceptors) {
-                            return;
-                        }
-                    }
-                }
+                tryAddAcceptor(adjacentPos, direction, previous.get(adjacentPos));
             }
         }
 
         acceptorsCacheDirty = false;
-        lastCacheUpdate = tickCounter;
+        lastAcceptorUpdate = tickCounter;
 
-        if (VEConfig.COMMON.logNetworkOperations.get()) {
+        if (VEConfig.snapshot().logNetworkOperations()) {
             LOGGER.debug("Updated acceptors for network {}: {} acceptors found",
                     networkId.toString().substring(0, 8), acceptors.size());
         }
@@ -165,72 +487,401 @@ public class VENetwork {
 
     /**
      * 毎tickの処理 - Config設定を考慮
+     * 単独で呼ぶ場合は3つのフェーズを続けて実行する
      */
     public void tick() {
+        if (prepareTick(1)) {
+            computeAllocations();
+            commitAllocations();
+        }
+    }
+
+    // ========== 2フェーズtick ==========
+    // prepareTick:        サーバースレッド。Acceptorの更新と需要の収集（ワールドアクセスあり）
+    // computeAllocations: 並列実行可。送信量の計算のみ（このネットワーク内の状態しか触らない）
+    // commitAllocations:  サーバースレッド。receiveEnergy で実際に送信
+
+    /**
+     * 前回tickされてからの経過tick数を取得し、tick時刻を更新
+     * スケジューラーに後回しにされた分もまとめて返す
+     * @param currentTick VENetworkTickerの現在のtick数
+     * @param maxCatchUp 取り戻す最大tick数
+     */
+    int consumeElapsedTicks(long currentTick, int maxCatchUp) {
+        long elapsed = lastTickedAt < 0 ? 1 : currentTick - lastTickedAt;
+        lastTickedAt = currentTick;
+        return (int) Math.max(1, Math.min(elapsed, maxCatchUp));
+    }
+
+    /**
+     * tickの準備フェーズ
+     * @param elapsedTicks 前回のtickからの経過tick数（後回しにされた分の補正に使用）
+     * @return 分配すべきエネルギーと需要がある場合true
+     */
+    boolean prepareTick(int elapsedTicks) {
+        clearPlan();
+
         if (!valid || transmitters.isEmpty()) {
-            return;
+            return false;
         }
 
-        tickCounter++;
+        // 全てのチャンクがアンロードされている間は何もしない（再確認待ちは読込時まで保持）
+        if (isSuspended()) {
+            return false;
+        }
 
-        // ネットワーク更新間隔をチェック
-        int updateInterval = VEConfig.COMMON.networkUpdateInterval.get();
-        if (tickCounter % updateInterval == 0 || acceptorsCacheDirty) {
-            // キャッシュが有効でない、または間隔に達した場合のみ更新
-            if (!VEConfig.COMMON.enableNetworkCaching.get() ||
-                    acceptorsCacheDirty ||
-                    tickCounter - lastCacheUpdate >= VEConfig.COMMON.cacheUpdateInterval.get()) {
-                updateAcceptors();
+        tickCounter += elapsedTicks;
+        catchUpTicks = elapsedTicks;
+        VEConfigSnapshot config = VEConfig.snapshot();
+        // メモリ逼迫中は縮退モード（スリープを強制し、再スキャンの間隔を伸ばす）
+        boolean degraded = VEMemoryManager.isUnderMemoryPressure();
+
+        // スリープ中は起こされるまで（NO_DEMAND ならバックオフ期限まで）何もしない
+        if (config.enableNetworkSleeping() || degraded) {
+            if (sleepState == SleepState.NO_ENERGY) {
+                // バッファが空の間はロスが発生しない（起きた時に届いたばかりのエネルギーから引かない）
+                lastLossTick = tickCounter;
+                return false;
+            }
+            if (sleepState == SleepState.NO_DEMAND && tickCounter - nextDemandPollTick < 0) {
+                return false;
+            }
+        } else {
+            wake();
+        }
+
+        // Acceptorは隣接変更とCapability無効化で差分更新する
+        // 全面再スキャンは修復が必要な場合のみ（定期的には行わない）
+        // キャッシュ有効時は再確認待ちを acceptorUpdateInterval ごとにまとめて処理する
+        // （無効化されたAcceptorはリスナーで即座に外れるので、遅れるのは新しいAcceptorの追加だけ）
+        if (acceptorsCacheDirty) {
+            updateAcceptors();
+        } else {
+            int updateInterval = config.enableNetworkCaching() ? config.acceptorUpdateInterval() : 1;
+            if (degraded) {
+                updateInterval *= DEGRADED_UPDATE_INTERVAL_MULTIPLIER;
             }
+            if (tickCounter - lastAcceptorUpdate >= updateInterval) {
+                processPendingAcceptorUpdates();
+            }
+        }
+
+        // エネルギーロスを適用（NO_DEMAND スリープ中の分も含めて経過tick分まとめて）
+        int lossTicks = tickCounter - lastLossTick;
+        lastLossTick = tickCounter;
+        if (config.enableEnergyLoss() && lossTicks > 0 && !buffer.isZero()) {
+            applyEnergyLoss(lossTicks);
         }
 
         if (buffer.isZero()) {
-            return;
+            sleepState = SleepState.NO_ENERGY;
+            return false;
+        }
+
+        if (!collectDemands()) {
+            // 一部ずつ確認している場合は、全てのAcceptorを一巡するまでスリープしない
+            if (idlePolledAcceptors < acceptors.size()) {
+                return false;
+            }
+
+            // 需要が無い間は確認間隔を倍々に伸ばす（縮退中は最初から最大間隔）
+            // 起きた時にはもう一度一巡してから眠る
+            sleepState = SleepState.NO_DEMAND;
+            idlePolledAcceptors = 0;
+            if (degraded) {
+                demandPollBackoff = config.demandPollMaxBackoffTicks();
+            }
+            nextDemandPollTick = tickCounter + demandPollBackoff;
+            demandPollBackoff = Math.min(demandPollBackoff << 1, config.demandPollMaxBackoffTicks());
+            return false;
         }
 
-        // エネルギーロスを適用
-        if (VEConfig.COMMON.enableEnergyLoss.get()) {
-            applyEnergyLoss();
+        sleepState = SleepState.AWAKE;
+        demandPollBackoff = 1;
+        return true;
+    }
+
+    /**
+     * スリープから起こす
+     * Acceptorが変化した場合は需要確認のバックオフもリセットする
+     */
+    private void wake() {
+        sleepState = SleepState.AWAKE;
+        demandPollBackoff = 1;
+        idlePolledAcceptors = 0;
+    }
+
+    /**
+     * スリープ中か
+     */
+    public boolean isSleeping() {
+        return sleepState != SleepState.AWAKE;
+    }
+
+    /**
+     * 次のtickで何もしないことが分かっているか（スケジューラーの処理数には数えない）
+     * 全てのチャンクがアンロードされているか、スリープ中で起きる時刻になっていない場合
+     */
+    boolean isIdle() {
+        if (isSuspended()) {
+            return true;
+        }
+        if (sleepState == SleepState.AWAKE) {
+            return false;
+        }
+        if (!VEConfig.snapshot().enableNetworkSleeping() && !VEMemoryManager.isUnderMemoryPressure()) {
+            return false;
+        }
+        return sleepState == SleepState.NO_ENERGY || tickCounter + 1 - nextDemandPollTick < 0;
+    }
+
+    /**
+     * エネルギーを受け取れるAcceptorの需要を収集
+     * @return 需要のあるAcceptorが存在する場合true
+     */
+    private boolean collectDemands() {
+        clearPlan();
+
+        AcceptorData[] all = getAcceptorArray();
+        int total = all.length;
+        if (total == 0) {
+            idlePolledAcceptors = 0;
+            return false;
         }
 
-        // エネルギーを受け取れるAcceptorをフィルタリング
-        List<AcceptorData> validAcceptors = new ArrayList<>();
-        BigEnergy totalNeeded = BigEnergy.ZERO;
+        // 分配方法によっては一部のAcceptorだけを確認する（ラウンドロビンなど）
+        DistributionStrategy strategy = getDistributionStrategy();
+        int pollCount = Math.min(strategy.pollCount(total), total);
+        int start = pollCount < total ? strategy.pollStart(total) : 0;
+
+        for (int n = 0; n < pollCount; n++) {
+            int position = start + n;
+            AcceptorData acceptor = all[position < total ? position : position - total];
+            IVEContainer container = acceptor.getContainer();
+            if (container != null) {
+                if (container.canReceive()) {
+                    BigEnergy needed = container.getMaxInsert();
+                    if (!needed.isZero()) {
+                        int index = plannedCount++;
+                        ensurePlanCapacity(plannedCount);
+                        plannedContainers[index] = container;
+                        plannedDemandsVE[index] = needed;
+                        plannedPriorities[index] = acceptor.getPriority();
+                    }
+                }
+                continue;
+            }
 
-        for (AcceptorData acceptor : acceptors.values()) {
             IEnergyStorage storage = acceptor.getStorage();
             if (storage != null && storage.canReceive()) {
                 int maxReceive = storage.getMaxEnergyStored() - storage.getEnergyStored();
                 if (maxReceive > 0) {
-                    validAcceptors.add(acceptor);
-                    totalNeeded = totalNeeded.add(convertFromForgeEnergy(maxReceive));
+                    int index = plannedCount++;
+                    ensurePlanCapacity(plannedCount);
+                    plannedStorages[index] = storage;
+                    plannedDemands[index] = maxReceive;
+                    plannedPriorities[index] = acceptor.getPriority();
                 }
             }
         }
 
-        if (validAcceptors.isEmpty()) {
-            return;
+        if (plannedCount > 0) {
+            idlePolledAcceptors = 0;
+            return true;
+        }
+        idlePolledAcceptors = (int) Math.min((long) idlePolledAcceptors + pollCount, Integer.MAX_VALUE);
+        return false;
+    }
+
+    private AcceptorData[] getAcceptorArray() {
+        if (acceptorArrayDirty) {
+            acceptorArray = acceptors.values().toArray(new AcceptorData[0]);
+            acceptorArrayDirty = false;
+        }
+        return acceptorArray;
+    }
+
+    /**
+     * Acceptorの分配優先度を設定（PRIORITY / FILL_FIRST で使用、大きいほど優先）
+     * 設定はそのAcceptorが再登録されても引き継がれる
+     */
+    public void setAcceptorPriority(BlockPos pos, int priority) {
+        BlockPos key = pos.immutable();
+        if (priority == 0) {
+            acceptorPriorities.remove(key);
+        } else {
+            acceptorPriorities.put(key, priority);
+        }
+
+        AcceptorData acceptor = acceptors.get(key);
+        if (acceptor != null) {
+            acceptor.setPriority(priority);
+        }
+    }
+
+    /**
+     * 送信量の計算フェーズ
+     * ワールドや他のネットワークには触れないので、ネットワークごとに並列で実行できる
+     */
+    void computeAllocations() {
+        int count = plannedCount;
+        BigEnergyAccumulator total = new BigEnergyAccumulator();
+
+        for (int i = 0; i < count; i++) {
+            // VE Acceptorの需要は収集時に BigEnergy のまま入っている
+            if (plannedContainers[i] == null) {
+                plannedDemandsVE[i] = convertFromForgeEnergy(plannedDemands[i]);
+            }
+            total.add(plannedDemandsVE[i]);
         }
 
         // エネルギーを分配
-        distributeEnergy(validAcceptors, totalNeeded);
+        distributeEnergy(count, total.toBigEnergy());
+    }
+
+    /**
+     * 送信フェーズ
+     * 計算済みの送信量を実際にAcceptorへ送る
+     * 後回しにされていた場合は、経過tick数分まで分配を繰り返して転送量を補う
+     */
+    void commitAllocations() {
+        boolean sentAny = sendPlanned();
+
+        // 送信量より少なくしか受け取らなかったAcceptorがいれば、その分を同じtick内でもう一度分配する
+        if (plannedShortfall && sentAny && valid && !buffer.isZero() && collectDemands()) {
+            computeAllocations();
+            sentAny = sendPlanned();
+        }
+
+        for (int round = 1; round < catchUpTicks && sentAny && valid && !buffer.isZero(); round++) {
+            if (!collectDemands()) {
+                break;
+            }
+            computeAllocations();
+            sentAny = sendPlanned();
+        }
+
+        catchUpTicks = 1;
+    }
+
+    /**
+     * 計算済みの送信量を送信
+     * @return 1つでも受け取られた場合true
+     */
+    private boolean sendPlanned() {
+        int count = plannedCount;
+        boolean sentAny = false;
+        plannedShortfall = false;
+
+        if (valid) {
+            for (int i = 0; i < count; i++) {
+                IVEContainer container = plannedContainers[i];
+                if (container != null) {
+                    BigEnergy toSendVE = plannedSharesVE[i];
+                    if (toSendVE != null && !toSendVE.isZero()) {
+                        BigEnergy inserted = container.insert(toSendVE, IVEContainer.Action.EXECUTE);
+                        if (!inserted.isZero()) {
+                            buffer = buffer.subtract(inserted);
+                            sentAny = true;
+                        }
+                        if (inserted.smallerThan(toSendVE)) {
+                            plannedShortfall = true;
+                        }
+                    }
+                    continue;
+                }
+
+                int toSend = plannedSends[i];
+                if (toSend > 0) {
+                    int sent = plannedStorages[i].receiveEnergy(toSend, false);
+                    if (sent > 0) {
+                        buffer = buffer.subtract(convertFromForgeEnergy(sent));
+                        sentAny = true;
+                    }
+                    if (sent < toSend) {
+                        plannedShortfall = true;
+                    }
+                }
+            }
+        }
+
+        clearPlan();
+        if (sentAny) {
+            VENetworkRegistry.markDirty(world);
+        }
+        return sentAny;
+    }
+
+    /**
+     * 計算済みの分配計画を破棄（送信しない）
+     */
+    void cancelAllocations() {
+        clearPlan();
+        catchUpTicks = 1;
+    }
+
+    /**
+     * 分配計画を空にする（配列は使い回し、参照だけ外す）
+     */
+    private void clearPlan() {
+        Arrays.fill(plannedStorages, 0, plannedCount, null);
+        Arrays.fill(plannedContainers, 0, plannedCount, null);
+        Arrays.fill(plannedDemandsVE, 0, plannedCount, null);
+        Arrays.fill(plannedSharesVE, 0, plannedCount, null);
+        plannedCount = 0;
+    }
+
+    /**
+     * 使い回している作業用の配列を最小サイズに戻す（メモリ逼迫時）
+     * tickの合間に呼ぶこと。配列は次に需要を収集する時に必要な分だけ確保し直される
+     */
+    void compact() {
+        clearPlan();
+        plannedStorages = new IEnergyStorage[INITIAL_PLAN_CAPACITY];
+        plannedContainers = new IVEContainer[INITIAL_PLAN_CAPACITY];
+        plannedDemands = new int[INITIAL_PLAN_CAPACITY];
+        plannedPriorities = new int[INITIAL_PLAN_CAPACITY];
+        plannedDemandsVE = new BigEnergy[INITIAL_PLAN_CAPACITY];
+        plannedSends = new int[INITIAL_PLAN_CAPACITY];
+        plannedSharesVE = new BigEnergy[INITIAL_PLAN_CAPACITY];
+
+        // スリープ中のネットワークはAcceptorの配列も起きるまで手放す
+        if (isSleeping()) {
+            acceptorArray = new AcceptorData[0];
+            acceptorArrayDirty = true;
+        }
+    }
+
+    private void ensurePlanCapacity(int size) {
+        if (plannedDemands.length < size) {
+            int newLength = Math.max(size, plannedDemands.length * 2);
+            plannedStorages = Arrays.copyOf(plannedStorages, newLength);
+            plannedContainers = Arrays.copyOf(plannedContainers, newLength);
+            plannedDemands = Arrays.copyOf(plannedDemands, newLength);
+            plannedPriorities = Arrays.copyOf(plannedPriorities, newLength);
+            plannedDemandsVE = Arrays.copyOf(plannedDemandsVE, newLength);
+            plannedSends = Arrays.copyOf(plannedSends, newLength);
+            plannedSharesVE = Arrays.copyOf(plannedSharesVE, newLength);
+        }
     }
 
     /**
      * エネルギーロスを適用
+     * @param elapsedTicks 経過tick数
      */
-    private void applyEnergyLoss() {
-        double lossPercent = VEConfig.COMMON.energyLossPercentPerBlock.get();
+    private void applyEnergyLoss(int elapsedTicks) {
+        double lossPercent = VEConfig.snapshot().energyLossPercentPerBlock();
         int transmitterCount = transmitters.size();
 
         // 各ブロックごとにlossPercentずつ減少
-        double totalLossPercent = lossPercent * transmitterCount;
+        double totalLossPercent = Math.min(1.0, lossPercent * transmitterCount * elapsedTicks);
 
         if (totalLossPercent > 0) {
             BigEnergy loss = buffer.multiply(totalLossPercent);
             buffer = buffer.subtract(loss);
+            VENetworkRegistry.markDirty(world);
 
-            if (VEConfig.COMMON.enableDebugLogging.get()) {
+            if (VEConfig.snapshot().enableDebugLogging()) {
                 LOGGER.debug("Energy loss in network {}: {} VE ({:.2f}%)",
                         networkId.toString().substring(0, 8), loss, totalLossPercent * 100);
             }
@@ -239,37 +890,34 @@ public class VENetwork {
 
     /**
      * エネルギー分配アルゴリズム
+     * plannedDemands / plannedDemandsVE から送信量を計算する（送信はしない）
+     * Forge Energy のAcceptorは plannedSends、VE のAcceptorは plannedSharesVE に入る
      */
-    protected void distributeEnergy(List<AcceptorData> acceptors, BigEnergy totalNeeded) {
+    protected void distributeEnergy(int count, BigEnergy totalNeeded) {
         BigEnergy available = buffer.min(totalNeeded);
 
         if (totalNeeded.greaterThan(available)) {
-            // 需要が供給を上回る場合は比例配分
-            for (AcceptorData acceptor : acceptors) {
-                IEnergyStorage storage = acceptor.getStorage();
-                int maxReceive = storage.getMaxEnergyStored() - storage.getEnergyStored();
-                BigEnergy needed = convertFromForgeEnergy(maxReceive);
-
-                // 比率計算
-                double ratio = needed.doubleValue() / totalNeeded.doubleValue();
-                BigEnergy toSend = available.multiply(ratio);
-
-                // Forge Energyに変換して送信
-                int feSend = convertToForgeEnergy(toSend);
-                int sent = storage.receiveEnergy(feSend, false);
-
-                buffer = buffer.subtract(convertFromForgeEnergy(sent));
+            // 需要が供給を上回る場合は選択された分配方法で分ける
+            getDistributionStrategy().distribute(count, plannedDemandsVE, plannedPriorities, totalNeeded, available, plannedSharesVE);
+            for (int i = 0; i < count; i++) {
+                if (plannedContainers[i] == null) {
+                    plannedSends[i] = Math.min(convertToForgeEnergy(plannedSharesVE[i]), plannedDemands[i]);
+                }
             }
         } else {
             // 供給が十分な場合は全て送る
-            for (AcceptorData acceptor : acceptors) {
-                IEnergyStorage storage = acceptor.getStorage();
-                int maxReceive = storage.getMaxEnergyStored() - storage.getEnergyStored();
+            System.arraycopy(plannedDemands, 0, plannedSends, 0, count);
+            System.arraycopy(plannedDemandsVE, 0, plannedSharesVE, 0, count);
+        }
+    }
 
-                int sent = storage.receiveEnergy(maxReceive, false);
-                buffer = buffer.subtract(convertFromForgeEnergy(sent));
-            }
+    private DistributionStrategy getDistributionStrategy() {
+        DistributionMode mode = VEConfig.snapshot().distributionMode();
+        if (distributionStrategy == null || distributionMode != mode) {
+            distributionMode = mode;
+            distributionStrategy = mode.createStrategy();
         }
+        return distributionStrategy;
     }
 
     public BigEnergy emit(BigEnergy energy) {
@@ -280,7 +928,16 @@ public class VENetwork {
         BigEnergy available = capacity.subtract(buffer);
         BigEnergy toInsert = energy.min(available);
 
+        if (toInsert.isZero()) {
+            return BigEnergy.ZERO;
+        }
         buffer = buffer.add(toInsert);
+        VENetworkRegistry.markDirty(world);
+
+        // バッファが空で眠っていたなら起こす（需要が無くて眠っている場合は状態を変えない）
+        if (sleepState == SleepState.NO_ENERGY) {
+            sleepState = SleepState.AWAKE;
+        }
         return toInsert;
     }
 
@@ -290,46 +947,111 @@ public class VENetwork {
         }
 
         BigEnergy toExtract = energy.min(buffer);
-        buffer = buffer.subtract(toExtract);
+        if (!toExtract.isZero()) {
+            buffer = buffer.subtract(toExtract);
+            VENetworkRegistry.markDirty(world);
+        }
         return toExtract;
     }
 
     public void invalidate() {
-        if (VEConfig.COMMON.logNetworkOperations.get()) {
+        if (VEConfig.snapshot().logNetworkOperations()) {
             LOGGER.info("Invalidating network: {}", networkId);
         }
 
         valid = false;
+        for (VETransmitter transmitter : transmitters) {
+            VENetworkRegistry.untrackTransmitter(this, transmitter);
+            if (transmitter.getNetwork() == this) {
+                transmitter.setNetwork(null);
+            }
+        }
         transmitters.clear();
         acceptors.clear();
+        acceptorArray = new AcceptorData[0];
+        pendingAcceptorUpdates.clear();
+        for (long chunk : transmittersByChunk.keySet()) {
+            VENetworkRegistry.untrackNetworkChunk(this, chunk);
+        }
+        transmittersByChunk.clear();
+        unloadedChunks.clear();
         VENetworkRegistry.unregisterNetwork(this);
     }
 
-    public void merge(VENetwork other) {
-        if (this == other || !other.valid) {
-            return;
+    /**
+     * 2つのネットワークをマージ
+     * 常にTransmitter数の少ない方を多い方へ吸収する
+     * @return マージ後に残ったネットワーク（マージしなかった場合はthis）
+     */
+    public VENetwork merge(VENetwork other) {
+        if (this == other || !other.valid || !valid) {
+            return this;
         }
 
         // ネットワークマージが無効なら何もしない
-        if (!VEConfig.COMMON.enableNetworkMerging.get()) {
-            return;
+        if (!VEConfig.snapshot().enableNetworkMerging()) {
+            return this;
         }
 
-        if (VEConfig.COMMON.logNetworkOperations.get()) {
+        VENetwork larger = transmitters.size() >= other.transmitters.size() ? this : other;
+        VENetwork smaller = larger == this ? other : this;
+
+        int maxTransmitters = VEConfig.snapshot().maxTransmittersPerNetwork();
+        if (maxTransmitters > 0 && larger.transmitters.size() + smaller.transmitters.size() > maxTransmitters) {
+            LOGGER.warn("Cannot merge network {} into {}: maximum transmitter limit {} would be exceeded",
+                    smaller.networkId.toString().substring(0, 8),
+                    larger.networkId.toString().substring(0, 8),
+                    maxTransmitters);
+            return this;
+        }
+
+        if (VEConfig.snapshot().logNetworkOperations()) {
             LOGGER.info("Merging network {} into {}",
-                    other.networkId.toString().substring(0, 8),
-                    this.networkId.toString().substring(0, 8));
+                    smaller.networkId.toString().substring(0, 8),
+                    larger.networkId.toString().substring(0, 8));
         }
 
-        Set<VETransmitter> otherTransmitters = new HashSet<>(other.transmitters);
-        for (VETransmitter transmitter : otherTransmitters) {
-            other.removeTransmitter(transmitter);
-            this.addTransmitter(transmitter);
+        larger.absorb(smaller);
+        return larger;
+    }
+
+    /**
+     * 他のネットワークの内容をまとめて取り込み、そのネットワークを無効化
+     * 容量とバッファは合計をそのまま加算するので、取り込む側のサイズに依存しない
+     */
+    private void absorb(VENetwork other) {
+        for (VETransmitter transmitter : other.transmitters) {
+            transmitters.add(transmitter);
+            transmitter.setNetwork(this);
+            VENetworkRegistry.trackTransmitter(this, transmitter);
+            trackChunk(transmitter);
         }
+        unloadedChunks.addAll(other.unloadedChunks);
 
-        this.buffer = this.buffer.add(other.buffer);
-        other.buffer = BigEnergy.ZERO;
+        capacity = capacity.add(other.capacity);
+        buffer = buffer.add(other.buffer);
+
+        // 既に解決済みのAcceptorはそのまま引き継ぐ（Capabilityリスナーは mergedInto 経由で転送される）
+        int maxAcceptors = VEConfig.snapshot().maxAcceptorsPerNetwork();
+        for (Map.Entry<BlockPos, AcceptorData> entry : other.acceptors.entrySet()) {
+            if (maxAcceptors > 0 && acceptors.size() >= maxAcceptors) {
+                break;
+            }
+            acceptors.putIfAbsent(entry.getKey(), entry.getValue());
+        }
+        acceptorArrayDirty = true;
+        other.acceptorPriorities.forEach(acceptorPriorities::putIfAbsent);
+        pendingAcceptorUpdates.addAll(other.pendingAcceptorUpdates);
+        if (other.acceptorsCacheDirty) {
+            acceptorsCacheDirty = true;
+        }
 
+        wake();
+
+        other.transmitters.clear();
+        other.buffer = BigEnergy.ZERO;
+        other.capacity = BigEnergy.ZERO;
+        other.mergedInto = this;
         other.invalidate();
     }
 
@@ -382,18 +1104,22 @@ public class VENetwork {
     }
 
     public String getDebugInfo() {
+        VEConfigSnapshot config = VEConfig.snapshot();
         return String.format(
-                "VENetwork[ID=%s, Transmitters=%d/%s, Acceptors=%d/%s, Buffer=%s, Capacity=%s, Cached=%s]",
+                "VENetwork[ID=%s, Transmitters=%d/%s, Acceptors=%d/%s, Buffer=%s, Capacity=%s, Cached=%s, Chunks=%d (unloaded %d), State=%s]",
                 networkId.toString().substring(0, 8),
                 getTransmitterCount(),
-                VEConfig.COMMON.maxTransmittersPerNetwork.get() > 0 ?
-                        String.valueOf(VEConfig.COMMON.maxTransmittersPerNetwork.get()) : "∞",
+                config.maxTransmittersPerNetwork() > 0 ?
+                        String.valueOf(config.maxTransmittersPerNetwork()) : "∞",
                 getAcceptorCount(),
-                VEConfig.COMMON.maxAcceptorsPerNetwork.get() > 0 ?
-                        String.valueOf(VEConfig.COMMON.maxAcceptorsPerNetwork.get()) : "∞",
+                config.maxAcceptorsPerNetwork() > 0 ?
+                        String.valueOf(config.maxAcceptorsPerNetwork()) : "∞",
                 buffer,
                 capacity,
-                VEConfig.COMMON.enableNetworkCaching.get()
+                config.enableNetworkCaching(),
+                transmittersByChunk.size(),
+                unloadedChunks.size(),
+                sleepState
         );
     }
 }
\ No newline at end of file
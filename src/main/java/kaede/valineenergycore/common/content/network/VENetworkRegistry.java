@@ -1,12 +1,17 @@
 package kaede.valineenergycore.common.content.network;
 
-import kaede.valineenergycore.api.energy.BigEnergy;
+import kaede.valineenergycore.api.energy.BigEnergyAccumulator;
+import kaede.valineenergycore.api.energy.VEChangeBatcher;
 import net.minecraft.core.BlockPos;
 import net.minecraft.core.Direction;
 import net.minecraft.server.level.ServerLevel;
+import net.minecraft.world.level.ChunkPos;
 import net.minecraft.world.level.Level;
+import net.minecraft.world.level.chunk.LevelChunk;
 import net.minecraftforge.event.TickEvent;
+import net.minecraftforge.event.level.ChunkEvent;
 import net.minecraftforge.event.level.LevelEvent;
+import net.minecraftforge.event.server.ServerStoppedEvent;
 import net.minecraftforge.eventbus.api.SubscribeEvent;
 import net.minecraftforge.fml.common.Mod;
 
@@ -27,8 +32,14 @@ public class VENetworkRegistry {
     // UUID -> Network の高速検索用
     private static final Map<UUID, VENetwork> NETWORKS_BY_ID = new ConcurrentHashMap<>();
 
-    // BlockPos -> Network の高速検索用
-    private static final Map<BlockPos, VENetwork> NETWORKS_BY_POS = new ConcurrentHashMap<>();
+    // ディメンションごとの BlockPos.asLong() -> Transmitter の高速検索用
+    private static final Map<Level, LongPositionMap<VETransmitter>> NETWORKS_BY_POS = new ConcurrentHashMap<>();
+
+    // ディメンションごとの ChunkPos.asLong() -> そのチャンクにTransmitterを持つネットワーク（チャンクイベント用）
+    private static final Map<Level, Map<Long, Set<VENetwork>>> NETWORKS_BY_CHUNK = new ConcurrentHashMap<>();
+
+    // ディメンションごとの保存データ（ネットワーク構成の復元用）
+    private static final Map<Level, VENetworkSavedData> SAVED_DATA = new ConcurrentHashMap<>();
 
     /**
      * ネットワークを登録
@@ -36,11 +47,8 @@ public class VENetworkRegistry {
     public static void registerNetwork(VENetwork network) {
         NETWORKS_BY_DIMENSION.computeIfAbsent(network.world, k -> new HashSet<>()).add(network);
         NETWORKS_BY_ID.put(network.getNetworkId(), network);
-
-        // 全Transmitterの座標を登録
-        for (VETransmitter transmitter : network.getTransmitters()) {
-            NETWORKS_BY_POS.put(transmitter.getPosition(), network);
-        }
+        VENetworkTicker.schedule(network);
+        markDirty(network.world);
     }
 
     /**
@@ -53,19 +61,128 @@ public class VENetworkRegistry {
         }
 
         NETWORKS_BY_ID.remove(network.getNetworkId());
+        markDirty(network.world);
+    }
+
+    /**
+     * ネットワーク構成・バッファの変更を保存データに通知
+     * 変更の無いディメンションは自動保存で書き出さない
+     */
+    static void markDirty(Level world) {
+        VENetworkSavedData savedData = SAVED_DATA.get(world);
+        if (savedData != null) {
+            savedData.setDirty();
+        }
+    }
+
+    /**
+     * Transmitterを座標索引に登録
+     * VENetwork.addTransmitter から呼ばれる
+     */
+    static void trackTransmitter(VENetwork network, VETransmitter transmitter) {
+        getPositionMap(network.world).put(transmitter.getPosition().asLong(), transmitter);
+    }
+
+    /**
+     * Transmitterを座標索引から削除（同じ座標に別のTransmitterが登録されていれば何もしない）
+     * VENetwork.removeTransmitter / invalidate から呼ばれる
+     */
+    static void untrackTransmitter(VENetwork network, VETransmitter transmitter) {
+        LongPositionMap<VETransmitter> positions = NETWORKS_BY_POS.get(network.world);
+        if (positions != null) {
+            positions.remove(transmitter.getPosition().asLong(), transmitter);
+        }
+    }
+
+    /**
+     * ネットワークをチャンク索引に登録
+     * VENetwork が新しいチャンクにTransmitterを持った時に呼ばれる
+     */
+    static void trackNetworkChunk(VENetwork network, long chunk) {
+        NETWORKS_BY_CHUNK.computeIfAbsent(network.world, k -> new HashMap<>())
+                .computeIfAbsent(chunk, k -> new HashSet<>()).add(network);
+    }
+
+    /**
+     * ネットワークをチャンク索引から削除
+     * VENetwork がそのチャンクのTransmitterを全て失った時に呼ばれる
+     */
+    static void untrackNetworkChunk(VENetwork network, long chunk) {
+        Map<Long, Set<VENetwork>> chunks = NETWORKS_BY_CHUNK.get(network.world);
+        if (chunks == null) {
+            return;
+        }
+        Set<VENetwork> networks = chunks.get(chunk);
+        if (networks != null && networks.remove(network) && networks.isEmpty()) {
+            chunks.remove(chunk);
+        }
+    }
+
+    /**
+     * 指定チャンク、またはその隣接チャンクにTransmitterを持つネットワークを取得
+     * （Acceptorは隣接チャンクに置かれている場合がある）
+     */
+    private static Set<VENetwork> getNetworksNearChunk(Level world, int chunkX, int chunkZ) {
+        Map<Long, Set<VENetwork>> chunks = NETWORKS_BY_CHUNK.get(world);
+        if (chunks == null || chunks.isEmpty()) {
+            return Collections.emptySet();
+        }
+        Set<VENetwork> result = new HashSet<>();
+        addNetworksInChunk(chunks, ChunkPos.asLong(chunkX, chunkZ), result);
+        addNetworksInChunk(chunks, ChunkPos.asLong(chunkX + 1, chunkZ), result);
+        addNetworksInChunk(chunks, ChunkPos.asLong(chunkX - 1, chunkZ), result);
+        addNetworksInChunk(chunks, ChunkPos.asLong(chunkX, chunkZ + 1), result);
+        addNetworksInChunk(chunks, ChunkPos.asLong(chunkX, chunkZ - 1), result);
+        return result;
+    }
 
-        // 全Transmitterの座標を削除
-        for (VETransmitter transmitter : network.getTransmitters()) {
-            NETWORKS_BY_POS.remove(transmitter.getPosition());
+    private static void addNetworksInChunk(Map<Long, Set<VENetwork>> chunks, long chunk, Set<VENetwork> result) {
+        Set<VENetwork> networks = chunks.get(chunk);
+        if (networks != null) {
+            result.addAll(networks);
         }
     }
 
+    private static LongPositionMap<VETransmitter> getPositionMap(Level world) {
+        return NETWORKS_BY_POS.computeIfAbsent(world, k -> new LongPositionMap<>());
+    }
+
     /**
      * 指定座標のネットワークを取得
      */
     @Nullable
-    public static VENetwork getNetworkAt(BlockPos pos) {
-        return NETWORKS_BY_POS.get(pos);
+    public static VENetwork getNetworkAt(Level world, BlockPos pos) {
+        return getNetworkAt(world, pos.asLong());
+    }
+
+    /**
+     * 指定座標（BlockPos.asLong()）のネットワークを取得
+     */
+    @Nullable
+    public static VENetwork getNetworkAt(Level world, long pos) {
+        VETransmitter transmitter = getTransmitterAt(world, pos);
+        return transmitter != null ? transmitter.getNetwork() : null;
+    }
+
+    /**
+     * 指定座標のネットワークに所属しているTransmitterを取得
+     */
+    @Nullable
+    public static VETransmitter getTransmitterAt(Level world, BlockPos pos) {
+        return getTransmitterAt(world, pos.asLong());
+    }
+
+    /**
+     * 指定座標（BlockPos.asLong()）のネットワークに所属しているTransmitterを取得
+     */
+    @Nullable
+    public static VETransmitter getTransmitterAt(Level world, long pos) {
+        LongPositionMap<VETransmitter> positions = NETWORKS_BY_POS.get(world);
+        if (positions == null) {
+            return null;
+        }
+        VETransmitter transmitter = positions.get(pos);
+        return transmitter != null && transmitter.getNetwork() != null ? transmitter : null;
     }
 
     /**
@@ -90,12 +207,34 @@ public class VENetworkRegistry {
     public static void mergeOrCreateNetwork(VETransmitter transmitter) {
         if (transmitter.getNetwork() != null) return;
         BlockPos pos = transmitter.getPosition();
+        Level world = transmitter.getWorld();
+
+        // 保存されていたネットワークがあればそこへ直接参加（隣接探索・マージを省略）
+        VENetworkSavedData savedData = SAVED_DATA.get(world);
+        if (savedData != null) {
+            VENetwork restored = savedData.takeRestoredNetwork(pos.asLong());
+            if (restored != null) {
+                restored.addTransmitter(transmitter);
+                if (transmitter.getNetwork() == restored) {
+                    // 保存後に隣に置かれた別ネットワークとだけ繋ぐ
+                    for (Direction direction : Direction.values()) {
+                        VENetwork adjacentNetwork = getNetworkAt(world, pos.relative(direction));
+                        if (adjacentNetwork != null && adjacentNetwork.isValid()
+                                && adjacentNetwork != transmitter.getNetwork()) {
+                            transmitter.getNetwork().merge(adjacentNetwork);
+                        }
+                    }
+                    return;
+                }
+            }
+        }
+
         Set<VENetwork> adjacentNetworks = new HashSet<>();
 
         // 隣接する6方向をチェック
         for (Direction direction : Direction.values()) {
             BlockPos adjacentPos = pos.relative(direction);
-            VENetwork adjacentNetwork = getNetworkAt(adjacentPos);
+            VENetwork adjacentNetwork = getNetworkAt(world, adjacentPos);
 
             if (adjacentNetwork != null && adjacentNetwork.isValid()) {
                 adjacentNetworks.add(adjacentNetwork);
@@ -111,20 +250,21 @@ public class VENetworkRegistry {
             // 1つのネットワークに追加
             VENetwork network = adjacentNetworks.iterator().next();
             network.addTransmitter(transmitter);
-            NETWORKS_BY_POS.put(pos, network);
         } else {
-            // 複数のネットワークをマージ
-            Iterator<VENetwork> iterator = adjacentNetworks.iterator();
-            VENetwork primary = iterator.next();
+            // 複数のネットワークをマージ（最大のネットワークに他を吸収させる）
+            VENetwork primary = null;
+            for (VENetwork network : adjacentNetworks) {
+                if (primary == null || network.getTransmitterCount() > primary.getTransmitterCount()) {
+                    primary = network;
+                }
+            }
 
-            // 最初のネットワークに追加
             primary.addTransmitter(transmitter);
-            NETWORKS_BY_POS.put(pos, primary);
 
-            // 残りのネットワークをマージ
-            while (iterator.hasNext()) {
-                VENetwork toMerge = iterator.next();
-                primary.merge(toMerge);
+            for (VENetwork network : adjacentNetworks) {
+                if (network != primary) {
+                    primary = primary.merge(network);
+                }
             }
         }
     }
@@ -133,82 +273,31 @@ public class VENetworkRegistry {
      * 指定座標周辺のネットワークを再構築
      * Transmitterが削除された時に呼ばれる
      */
-    public static void refreshNetworksAround(BlockPos pos) {
-        // 隣接する6方向をチェック
-        Map<Direction, VETransmitter> adjacentTransmitters = new HashMap<>();
+    public static void refreshNetworksAround(Level world, BlockPos pos) {
+        // 隣接する6方向のTransmitterをネットワークごとにまとめる（通常は1つのネットワーク）
+        Map<VENetwork, List<VETransmitter>> adjacentByNetwork = new HashMap<>();
 
         for (Direction direction : Direction.values()) {
-            BlockPos adjacentPos = pos.relative(direction);
-            VENetwork network = getNetworkAt(adjacentPos);
-
-            if (network != null) {
-                for (VETransmitter transmitter : network.getTransmitters()) {
-                    if (transmitter.getPosition().equals(adjacentPos)) {
-                        adjacentTransmitters.put(direction, transmitter);
-                        break;
-                    }
-                }
-            }
-        }
-
-        if (adjacentTransmitters.isEmpty()) {
-            return;
-        }
-
-        // 各Transmitterから到達可能なTransmitterをBFSで探索
-        List<Set<VETransmitter>> groups = new ArrayList<>();
-        Set<VETransmitter> visited = new HashSet<>();
-
-        for (VETransmitter start : adjacentTransmitters.values()) {
-            if (visited.contains(start)) {
-                continue;
-            }
-
-            Set<VETransmitter> group = new HashSet<>();
-            Queue<VETransmitter> queue = new LinkedList<>();
-            queue.add(start);
-            visited.add(start);
-
-            while (!queue.isEmpty()) {
-                VETransmitter current = queue.poll();
-                group.add(current);
-
-                for (VETransmitter neighbor : current.getAdjacentTransmitters()) {
-                    if (!visited.contains(neighbor) && !neighbor.getPosition().equals(pos)) {
-                        visited.add(neighbor);
-                        queue.add(neighbor);
-                    }
-                }
+            VETransmitter transmitter = getTransmitterAt(world, pos.relative(direction));
+            if (transmitter != null) {
+                adjacentByNetwork.computeIfAbsent(transmitter.getNetwork(), k -> new ArrayList<>()).add(transmitter);
             }
-
-            groups.add(group);
         }
 
-        // グループが1つなら何もしない（ネットワークは分割されていない）
-        if (groups.size() <= 1) {
-            return;
+        // 隣接Transmitterが2つ以上あるネットワークだけ分割の可能性がある
+        for (Map.Entry<VENetwork, List<VETransmitter>> entry : adjacentByNetwork.entrySet()) {
+            VENetworkSplitter.split(entry.getKey(), entry.getValue());
         }
+    }
 
-        // 複数のグループがある場合は、それぞれ新しいネットワークを作成
-        for (Set<VETransmitter> group : groups) {
-            if (!group.isEmpty()) {
-                VETransmitter first = group.iterator().next();
-                VENetwork oldNetwork = first.getNetwork();
-
-                if (oldNetwork != null) {
-                    // 古いネットワークから削除
-                    for (VETransmitter transmitter : group) {
-                        oldNetwork.removeTransmitter(transmitter);
-                    }
-                }
-
-                // 新しいネットワークを作成
-                VENetwork newNetwork = new VENetwork(first.getWorld());
-                for (VETransmitter transmitter : group) {
-                    newNetwork.addTransmitter(transmitter);
-                }
-                registerNetwork(newNetwork);
-            }
+    /**
+     * ワールドが読み込まれた時の処理
+     * 保存されていたネットワーク構成を一括で復元する
+     */
+    @SubscribeEvent
+    public static void onWorldLoad(LevelEvent.Load event) {
+        if (event.getLevel() instanceof ServerLevel level) {
+            SAVED_DATA.put(level, VENetworkSavedData.get(level));
         }
     }
 
@@ -219,6 +308,9 @@ public class VENetworkRegistry {
     public static void onWorldUnload(LevelEvent.Unload event) {
         if (event.getLevel() instanceof ServerLevel level) {
             Set<VENetwork> networks = NETWORKS_BY_DIMENSION.remove(level);
+            NETWORKS_BY_POS.remove(level);
+            NETWORKS_BY_CHUNK.remove(level);
+            SAVED_DATA.remove(level);
             if (networks != null) {
                 for (VENetwork network : networks) {
                     network.invalidate();
@@ -227,23 +319,62 @@ public class VENetworkRegistry {
         }
     }
 
+    /**
+     * チャンクがアンロードされた時の処理
+     * 周辺のネットワークからそのチャンク内のAcceptorを外す
+     */
+    @SubscribeEvent
+    public static void onChunkUnload(ChunkEvent.Unload event) {
+        // 生成途中のProtoChunkは対象外（ワーカースレッドから呼ばれる場合がある）
+        if (event.getLevel() instanceof ServerLevel level && event.getChunk() instanceof LevelChunk) {
+            ChunkPos chunkPos = event.getChunk().getPos();
+            for (VENetwork network : getNetworksNearChunk(level, chunkPos.x, chunkPos.z)) {
+                if (network.isValid()) {
+                    network.onChunkUnloaded(chunkPos.x, chunkPos.z);
+                }
+            }
+        }
+    }
+
+    /**
+     * チャンクが読み込まれた時の処理
+     * 周辺のネットワークにそのチャンクに面したAcceptorを再確認させる
+     */
+    @SubscribeEvent
+    public static void onChunkLoad(ChunkEvent.Load event) {
+        // 生成途中のProtoChunkは対象外（ワーカースレッドから呼ばれる場合がある）
+        if (event.getLevel() instanceof ServerLevel level && event.getChunk() instanceof LevelChunk) {
+            ChunkPos chunkPos = event.getChunk().getPos();
+            for (VENetwork network : getNetworksNearChunk(level, chunkPos.x, chunkPos.z)) {
+                if (network.isValid()) {
+                    network.onChunkLoaded(chunkPos.x, chunkPos.z);
+                }
+            }
+        }
+    }
+
     /**
      * サーバーティック時の処理
      */
     @SubscribeEvent
     public static void onServerTick(TickEvent.ServerTickEvent event) {
         if (event.phase == TickEvent.Phase.END) {
-            // 全ディメンションの全ネットワークをtick
-            for (Set<VENetwork> networks : NETWORKS_BY_DIMENSION.values()) {
-                for (VENetwork network : networks) {
-                    if (network.isValid()) {
-                        network.tick();
-                    }
-                }
-            }
+            // 登録済みネットワークをtick（1tickあたりの処理量はConfigで制限）
+            VENetworkTicker.tick();
+            // このtick中のコンテナ変更通知をまとめて送る
+            VEChangeBatcher.flush();
         }
     }
 
+    /**
+     * サーバー停止時の処理
+     */
+    @SubscribeEvent
+    public static void onServerStopped(ServerStoppedEvent event) {
+        VENetworkTicker.shutdown();
+        VEChangeBatcher.clear();
+    }
+
     /**
      * デバッグ情報を取得
      */
@@ -254,8 +385,8 @@ public class VENetworkRegistry {
         int totalNetworks = 0;
         int totalTransmitters = 0;
         int totalAcceptors = 0;
-        BigEnergy totalBuffer = BigEnergy.ZERO;
-        BigEnergy totalCapacity = BigEnergy.ZERO;
+        BigEnergyAccumulator totalBuffer = new BigEnergyAccumulator();
+        BigEnergyAccumulator totalCapacity = new BigEnergyAccumulator();
 
         for (Map.Entry<Level, Set<VENetwork>> entry : NETWORKS_BY_DIMENSION.entrySet()) {
             Level world = entry.getKey();
@@ -268,8 +399,8 @@ public class VENetworkRegistry {
                 totalNetworks++;
                 totalTransmitters += network.getTransmitterCount();
                 totalAcceptors += network.getAcceptorCount();
-                totalBuffer = totalBuffer.add(network.getBuffer());
-                totalCapacity = totalCapacity.add(network.getCapacity());
+                totalBuffer.add(network.getBuffer());
+                totalCapacity.add(network.getCapacity());
 
                 sb.append(String.format("    - %s\n", network.getDebugInfo()));
             }
@@ -279,12 +410,30 @@ public class VENetworkRegistry {
         sb.append(String.format("  Networks: %d\n", totalNetworks));
         sb.append(String.format("  Transmitters: %d\n", totalTransmitters));
         sb.append(String.format("  Acceptors: %d\n", totalAcceptors));
-        sb.append(String.format("  Total Buffer: %s\n", totalBuffer));
-        sb.append(String.format("  Total Capacity: %s\n", totalCapacity));
+        sb.append(String.format("  Total Buffer: %s\n", totalBuffer.toBigEnergy()));
+        sb.append(String.format("  Total Capacity: %s\n", totalCapacity.toBigEnergy()));
+        sb.append(String.format("  Scheduler: %s\n", VENetworkTicker.getDebugInfo()));
 
         return sb.toString();
     }
 
+    /**
+     * 全ネットワークの作業領域と座標索引を縮める（メモリ逼迫による縮退の開始時）
+     */
+    static void compactAll() {
+        for (Set<VENetwork> networks : NETWORKS_BY_DIMENSION.values()) {
+            for (VENetwork network : networks) {
+                network.compact();
+            }
+        }
+        for (LongPositionMap<VETransmitter> positions : NETWORKS_BY_POS.values()) {
+            positions.trim();
+        }
+        for (VENetworkSavedData data : SAVED_DATA.values()) {
+            data.compact();
+        }
+    }
+
     /**
      * 全ネットワークをクリア（デバッグ用）
      */
@@ -297,5 +446,8 @@ public class VENetworkRegistry {
         NETWORKS_BY_DIMENSION.clear();
         NETWORKS_BY_ID.clear();
         NETWORKS_BY_POS.clear();
+        NETWORKS_BY_CHUNK.clear();
+        SAVED_DATA.clear();
+        VENetworkTicker.clear();
     }
 }
@@ -0,0 +1,201 @@
+package kaede.valineenergycore.common.content.network;
+
+import kaede.valineenergycore.api.energy.BigEnergy;
+import kaede.valineenergycore.common.config.VEConfig;
+import com.mojang.logging.LogUtils;
+import net.minecraft.core.BlockPos;
+import net.minecraft.nbt.CompoundTag;
+import net.minecraft.nbt.ListTag;
+import net.minecraft.nbt.Tag;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.world.level.saveddata.SavedData;
+import org.slf4j.Logger;
+
+import javax.annotation.Nullable;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * ディメンションごとのネットワーク構成の保存データ
+ * ネットワークごとに所属Transmitterの座標（BlockPos.asLong() の配列）とバッファを保存する
+ *
+ * ロード時は保存されていたネットワークを一括で作成しておき、
+ * チャンク読込で各Transmitterが onPlace された時点でそのネットワークに直接参加させる
+ * （隣接ネットワークとの逐次マージを繰り返さない）
+ *
+ * ネットワーク構成やバッファが変化した時だけ VENetworkRegistry.markDirty で保存対象になる
+ */
+public class VENetworkSavedData extends SavedData {
+
+    private static final Logger LOGGER = LogUtils.getLogger();
+
+    private static final String DATA_NAME = "valineenergycore_networks";
+
+    private static final String TAG_NETWORKS = "Networks";
+    private static final String TAG_ID = "Id";
+    private static final String TAG_BUFFER = "Buffer";
+    private static final String TAG_POSITIONS = "Positions";
+
+    private final ServerLevel level;
+
+    // まだTransmitterが読み込まれていない座標 -> 復元したネットワーク
+    private final LongPositionMap<VENetwork> pendingPositions = new LongPositionMap<>();
+    // 復元したネットワークの保存時の座標（未参加の座標を保存し直すため）
+    private final Map<VENetwork, long[]> restoredPositions = new HashMap<>();
+
+    private VENetworkSavedData(ServerLevel level) {
+        this.level = level;
+    }
+
+    /**
+     * ディメンションの保存データを取得（なければ作成）
+     * 読込時に保存されていたネットワークを作成して登録する
+     */
+    public static VENetworkSavedData get(ServerLevel level) {
+        return level.getDataStorage().computeIfAbsent(
+                tag -> load(level, tag),
+                () -> new VENetworkSavedData(level),
+                DATA_NAME
+        );
+    }
+
+    private static VENetworkSavedData load(ServerLevel level, CompoundTag tag) {
+        VENetworkSavedData data = new VENetworkSavedData(level);
+        ListTag networks = tag.getList(TAG_NETWORKS, Tag.TAG_COMPOUND);
+        int restoredTransmitters = 0;
+
+        for (int i = 0; i < networks.size(); i++) {
+            CompoundTag networkTag = networks.getCompound(i);
+            long[] positions = networkTag.getLongArray(TAG_POSITIONS);
+            if (positions.length == 0) {
+                continue;
+            }
+
+            UUID id = networkTag.hasUUID(TAG_ID) ? networkTag.getUUID(TAG_ID) : UUID.randomUUID();
+            VENetwork network = new VENetwork(level, id);
+            network.buffer = BigEnergy.readFromNBT(networkTag, TAG_BUFFER);
+
+            for (long pos : positions) {
+                data.pendingPositions.put(pos, network);
+            }
+            data.restoredPositions.put(network, positions);
+            restoredTransmitters += positions.length;
+
+            VENetworkRegistry.registerNetwork(network);
+        }
+
+        if (VEConfig.snapshot().logNetworkOperations()) {
+            LOGGER.info("Restored {} VE networks ({} transmitters) in {}",
+                    data.restoredPositions.size(), restoredTransmitters, level.dimension().location());
+        }
+        return data;
+    }
+
+    /**
+     * 指定座標が保存されていたネットワークを取り出す
+     * Transmitterが読み込まれた時に一度だけ使われ、以降は通常の座標索引で管理される
+     */
+    @Nullable
+    VENetwork takeRestoredNetwork(long pos) {
+        VENetwork network = pendingPositions.get(pos);
+        if (network == null) {
+            return null;
+        }
+        pendingPositions.remove(pos, network);
+
+        // 読込待ちの間に他のネットワークへマージされていれば吸収先に参加させる
+        VENetwork resolved = network.resolveMerged();
+        return resolved.isValid() ? resolved : null;
+    }
+
+    /**
+     * 復元待ちの座標索引を縮める（メモリ逼迫時）
+     */
+    void compact() {
+        pendingPositions.trim();
+    }
+
+    @Override
+    public CompoundTag save(CompoundTag tag) {
+        // 読込済みのTransmitterの座標
+        Map<VENetwork, PositionList> positionsByNetwork = new LinkedHashMap<>();
+        for (VENetwork network : VENetworkRegistry.getNetworksInDimension(level)) {
+            if (network.isValid()) {
+                PositionList positions = new PositionList(network.getTransmitterCount());
+                for (VETransmitter transmitter : network.getTransmitters()) {
+                    positions.add(transmitter.getPosition().asLong());
+                }
+                positionsByNetwork.put(network, positions);
+            }
+        }
+
+        // まだ読み込まれていない復元待ちの座標（マージされていれば吸収先に含める）
+        Iterator<Map.Entry<VENetwork, long[]>> iterator = restoredPositions.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<VENetwork, long[]> entry = iterator.next();
+            VENetwork restored = entry.getKey();
+            PositionList positions = positionsByNetwork.get(restored.resolveMerged());
+            boolean anyPending = false;
+
+            for (long pos : entry.getValue()) {
+                if (pendingPositions.get(pos) != restored) {
+                    continue;
+                }
+                // チャンクが読み込まれているのに参加していない座標はTransmitterが無くなっている
+                if (positions != null && !level.hasChunk(BlockPos.getX(pos) >> 4, BlockPos.getZ(pos) >> 4)) {
+                    positions.add(pos);
+                    anyPending = true;
+                }
+            }
+
+            if (!anyPending) {
+                iterator.remove();
+            }
+        }
+
+        ListTag networks = new ListTag();
+        for (Map.Entry<VENetwork, PositionList> entry : positionsByNetwork.entrySet()) {
+            PositionList positions = entry.getValue();
+            if (positions.size == 0) {
+                continue;
+            }
+
+            VENetwork network = entry.getKey();
+            CompoundTag networkTag = new CompoundTag();
+            networkTag.putUUID(TAG_ID, network.getNetworkId());
+            network.getBuffer().writeToNBT(networkTag, TAG_BUFFER);
+            networkTag.putLongArray(TAG_POSITIONS, positions.toArray());
+            networks.add(networkTag);
+        }
+
+        tag.put(TAG_NETWORKS, networks);
+        return tag;
+    }
+
+    /**
+     * 座標の可変長配列
+     */
+    private static final class PositionList {
+        long[] data;
+        int size;
+
+        PositionList(int initialCapacity) {
+            data = new long[Math.max(initialCapacity, 4)];
+        }
+
+        void add(long pos) {
+            if (size == data.length) {
+                data = Arrays.copyOf(data, size << 1);
+            }
+            data[size++] = pos;
+        }
+
+        long[] toArray() {
+            return size == data.length ? data : Arrays.copyOf(data, size);
+        }
+    }
+}
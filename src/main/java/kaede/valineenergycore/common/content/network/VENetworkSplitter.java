@@ -0,0 +1,191 @@
+package kaede.valineenergycore.common.content.network;
+
+import kaede.valineenergycore.api.energy.BigEnergy;
+import kaede.valineenergycore.common.config.VEConfig;
+import com.mojang.logging.LogUtils;
+import org.slf4j.Logger;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Transmitter削除時のネットワーク分割判定
+ *
+ * 削除された座標に隣接する各Transmitterから同時に（交互に1ノードずつ）BFSを進め、
+ * 探索同士が出会ったらその時点で同じ断片とみなす
+ * - 全ての探索が出会った時点で終了（分割なし。ループ状の配線ではすぐに終わる）
+ * - 他と出会わずに探索し尽くした断片だけを新しいネットワークとして切り出す
+ * 交互に進めるので先に探索し尽くすのは小さい方の断片になり、
+ * 大きい断片は元のネットワークにそのまま残る
+ */
+final class VENetworkSplitter {
+
+    private static final Logger LOGGER = LogUtils.getLogger();
+
+    private VENetworkSplitter() {
+    }
+
+    /**
+     * 1つの探索の状態
+     */
+    private static final class Search {
+        final ArrayDeque<VETransmitter> frontier = new ArrayDeque<>();
+        final LongPositionSet visited = new LongPositionSet();
+        final List<VETransmitter> found = new ArrayList<>();
+        // Union-Find の親（出会った探索同士を同じグループにまとめる）
+        int parent;
+        // 既に新しいネットワークとして切り出した探索
+        boolean detached;
+
+        Search(VETransmitter start, int index) {
+            parent = index;
+            frontier.add(start);
+            visited.add(start.getPosition().asLong());
+            found.add(start);
+        }
+    }
+
+    /**
+     * ネットワークの分割を判定し、切り離された断片を新しいネットワークにする
+     * @param network Transmitterが削除されたネットワーク
+     * @param starts 削除された座標に隣接する、このネットワークのTransmitter
+     */
+    static void split(VENetwork network, List<VETransmitter> starts) {
+        if (starts.size() <= 1 || !network.isValid()) {
+            // 末端のTransmitterなら分割は起こらない
+            return;
+        }
+
+        Search[] searches = new Search[starts.size()];
+        for (int i = 0; i < searches.length; i++) {
+            searches[i] = new Search(starts.get(i), i);
+        }
+
+        int groups = searches.length;
+
+        while (groups > 1) {
+            boolean progressed = false;
+
+            for (int i = 0; i < searches.length && groups > 1; i++) {
+                Search search = searches[i];
+                if (search.detached || search.frontier.isEmpty()) {
+                    continue;
+                }
+                progressed = true;
+
+                VETransmitter current = search.frontier.poll();
+                for (VETransmitter neighbor : current.getAdjacentTransmitters()) {
+                    if (neighbor.getNetwork() != network) {
+                        continue;
+                    }
+
+                    long pos = neighbor.getPosition().asLong();
+                    int owner = findOwner(searches, pos);
+                    if (owner < 0) {
+                        search.visited.add(pos);
+                        search.found.add(neighbor);
+                        search.frontier.add(neighbor);
+                    } else if (union(searches, i, owner)) {
+                        groups--;
+                    }
+                }
+
+                // 他と出会わずに探索し尽くしたグループは独立した断片
+                if (search.frontier.isEmpty() && groups > 1 && isGroupExhausted(searches, i)) {
+                    detach(network, searches, find(searches, i));
+                    groups--;
+                }
+            }
+
+            if (!progressed) {
+                break;
+            }
+        }
+    }
+
+    private static int findOwner(Search[] searches, long pos) {
+        for (int i = 0; i < searches.length; i++) {
+            if (!searches[i].detached && searches[i].visited.contains(pos)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static int find(Search[] searches, int i) {
+        while (searches[i].parent != i) {
+            i = searches[i].parent;
+        }
+        return i;
+    }
+
+    /**
+     * @return 別々のグループだったものをまとめた場合true
+     */
+    private static boolean union(Search[] searches, int a, int b) {
+        int rootA = find(searches, a);
+        int rootB = find(searches, b);
+        if (rootA == rootB) {
+            return false;
+        }
+        searches[rootB].parent = rootA;
+        return true;
+    }
+
+    private static boolean isGroupExhausted(Search[] searches, int i) {
+        int root = find(searches, i);
+        for (int j = 0; j < searches.length; j++) {
+            if (!searches[j].detached && find(searches, j) == root && !searches[j].frontier.isEmpty()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * グループに属するTransmitterを新しいネットワークへ移す
+     * バッファは容量に比例して分配する
+     */
+    private static void detach(VENetwork network, Search[] searches, int root) {
+        // 先にグループの探索を全て求めてから印を付ける（途中で parent を書き換えると find が狂う）
+        List<Search> members = new ArrayList<>();
+        for (int j = 0; j < searches.length; j++) {
+            if (!searches[j].detached && find(searches, j) == root) {
+                members.add(searches[j]);
+            }
+        }
+
+        List<VETransmitter> fragment = new ArrayList<>();
+        for (Search member : members) {
+            fragment.addAll(member.found);
+            // 以降は探索もowner判定もしない
+            member.detached = true;
+            member.frontier.clear();
+        }
+
+        BigEnergy totalCapacity = network.getCapacity();
+        BigEnergy totalBuffer = network.getBuffer();
+
+        VENetwork newNetwork = new VENetwork(network.world);
+        for (VETransmitter transmitter : fragment) {
+            network.removeTransmitter(transmitter);
+            newNetwork.addTransmitter(transmitter);
+        }
+
+        if (!totalBuffer.isZero() && !totalCapacity.isZero()) {
+            BigEnergy share = totalBuffer.multiply(newNetwork.getCapacity()).divide(totalCapacity);
+            network.buffer = network.buffer.subtract(share);
+            newNetwork.buffer = share;
+        }
+
+        VENetworkRegistry.registerNetwork(newNetwork);
+
+        if (VEConfig.snapshot().logNetworkOperations()) {
+            LOGGER.info("Split {} transmitters from network {} into {}",
+                    fragment.size(),
+                    network.getNetworkId().toString().substring(0, 8),
+                    newNetwork.getNetworkId().toString().substring(0, 8));
+        }
+    }
+}
@@ -0,0 +1,256 @@
+package kaede.valineenergycore.common.content.network;
+
+import kaede.valineenergycore.api.energy.VEMemoryManager;
+import kaede.valineenergycore.common.config.VEConfig;
+import kaede.valineenergycore.common.config.VEConfigSnapshot;
+import com.mojang.logging.LogUtils;
+import org.slf4j.Logger;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.ForkJoinWorkerThread;
+
+/**
+ * VEネットワークのtickを実行するクラス
+ *
+ * 1. 準備フェーズ（サーバースレッド）: Acceptorの更新と需要の収集
+ * 2. 計算フェーズ（enableMultithreadedNetworks 時は ForkJoinPool で並列）: 送信量の計算
+ * 3. 送信フェーズ（サーバースレッド）: receiveEnergy の呼び出し
+ *
+ * ワールドや他MODのCapabilityに触れるのはサーバースレッドだけなので、
+ * 計算フェーズだけを安全に並列化できる
+ *
+ * 1tickに処理するネットワーク数と時間には上限を設け、
+ * 溢れた分はラウンドロビンで次のtickに回す
+ */
+public class VENetworkTicker {
+
+    private static final Logger LOGGER = LogUtils.getLogger();
+
+    // これ未満のネットワーク数なら並列化のオーバーヘッドの方が大きい
+    private static final int PARALLEL_THRESHOLD = 2;
+
+    // 時間予算がある場合に経過時間を確認する間隔（ネットワーク数）
+    private static final int BUDGET_CHECK_BATCH = 32;
+
+    // 後回しにされたネットワークが1回のtickで取り戻す最大tick数
+    private static final int MAX_CATCH_UP_TICKS = 20;
+
+    // メモリ逼迫による縮退中に解除を確認する間隔（tick）
+    private static final int PRESSURE_CHECK_INTERVAL = 100;
+
+    private static volatile ForkJoinPool pool;
+
+    // ラウンドロビンで処理するネットワークのキュー（サーバースレッドからのみ操作）
+    private static final ArrayDeque<VENetwork> QUEUE = new ArrayDeque<>();
+
+    private static long currentTick = 0;
+
+    // 前回のtickで縮退モードだったか
+    private static boolean degraded = false;
+
+    // 統計情報
+    private static int lastProcessed = 0;
+    private static int lastDeferred = 0;
+    private static long totalDeferred = 0;
+
+    /**
+     * ネットワークをスケジュールに追加
+     */
+    static void schedule(VENetwork network) {
+        if (!network.scheduled) {
+            network.scheduled = true;
+            QUEUE.addLast(network);
+        }
+    }
+
+    /**
+     * 全ネットワークをスケジュールから外す
+     */
+    static void clear() {
+        for (VENetwork network : QUEUE) {
+            network.scheduled = false;
+        }
+        QUEUE.clear();
+    }
+
+    /**
+     * スケジュールされたネットワークを1tick分処理
+     * maxNetworkCalculationsPerTick と networkTickBudgetMicros の範囲内で
+     * キューの先頭から順に処理し、処理したネットワークはキューの末尾に戻す
+     * 処理しきれなかったネットワークは次のtickに後回しにされ、
+     * 次に処理されたときに経過tick数分の転送を補う
+     * スリープ中・停止中のネットワークは確認だけして処理数には数えない
+     */
+    public static void tick() {
+        currentTick++;
+        updateDegradedMode();
+
+        VEConfigSnapshot config = VEConfig.snapshot();
+        int maxCount = config.maxNetworkCalculationsPerTick();
+        int budgetMicros = config.networkTickBudgetMicros();
+
+        // 各ネットワークは1tickに最大一回だけ確認する
+        int queued = QUEUE.size();
+        // 0以下は無制限（0で全ネットワークが止まらないようにする）
+        int limit = maxCount > 0 ? maxCount : Integer.MAX_VALUE;
+
+        long deadline = budgetMicros >= 0 ? System.nanoTime() + budgetMicros * 1000L : Long.MAX_VALUE;
+        int batchSize = budgetMicros >= 0 ? BUDGET_CHECK_BATCH : Integer.MAX_VALUE;
+
+        int visited = 0;
+        int processed = 0;
+        List<VENetwork> batch = new ArrayList<>();
+
+        while (visited < queued && processed < limit && !QUEUE.isEmpty()) {
+            batch.clear();
+            int active = 0;
+            while (active < batchSize && processed + active < limit && visited < queued && !QUEUE.isEmpty()) {
+                VENetwork network = QUEUE.pollFirst();
+                visited++;
+                if (!network.isValid()) {
+                    // 無効化されたネットワークはここで取り除く
+                    network.scheduled = false;
+                    continue;
+                }
+                QUEUE.addLast(network);
+                batch.add(network);
+                // スリープ中のネットワークは経過tickの記録だけなので数えない
+                if (!network.isIdle()) {
+                    active++;
+                }
+            }
+
+            tickBatch(batch);
+            processed += active;
+
+            if (System.nanoTime() >= deadline) {
+                break;
+            }
+        }
+
+        lastProcessed = processed;
+        lastDeferred = queued - visited;
+        totalDeferred += lastDeferred;
+
+        if (lastDeferred > 0 && config.enableDebugLogging()) {
+            LOGGER.debug("Deferred {} VE networks this tick ({} processed)", lastDeferred, processed);
+        }
+    }
+
+    /**
+     * メモリ逼迫による縮退モードの切り替え
+     * 開始は VEMemoryManager の閾値超過通知、解除はここで一定間隔ごとに確認する
+     * 縮退の開始時に一度だけ全ネットワークの作業領域を縮める
+     */
+    private static void updateDegradedMode() {
+        boolean pressure = VEMemoryManager.isUnderMemoryPressure();
+        if (pressure && currentTick % PRESSURE_CHECK_INTERVAL == 0) {
+            pressure = VEMemoryManager.updateMemoryPressure();
+        }
+
+        if (pressure && !degraded) {
+            VENetworkRegistry.compactAll();
+        }
+        degraded = pressure;
+    }
+
+    /**
+     * ネットワークのまとまりを処理
+     */
+    private static void tickBatch(List<VENetwork> networks) {
+        // 準備フェーズ
+        List<VENetwork> prepared = new ArrayList<>();
+        for (VENetwork network : networks) {
+            int elapsed = network.consumeElapsedTicks(currentTick, MAX_CATCH_UP_TICKS);
+            if (network.isValid() && network.prepareTick(elapsed)) {
+                prepared.add(network);
+            }
+        }
+
+        if (prepared.isEmpty()) {
+            return;
+        }
+
+        // 計算フェーズ
+        if (VEConfig.snapshot().enableMultithreadedNetworks() && prepared.size() >= PARALLEL_THRESHOLD) {
+            computeParallel(prepared);
+        } else {
+            for (VENetwork network : prepared) {
+                network.computeAllocations();
+            }
+        }
+
+        // 送信フェーズ
+        for (VENetwork network : prepared) {
+            network.commitAllocations();
+        }
+    }
+
+    private static void computeParallel(List<VENetwork> prepared) {
+        ForkJoinPool executor = getPool();
+        List<ForkJoinTask<?>> tasks = new ArrayList<>(prepared.size());
+
+        for (VENetwork network : prepared) {
+            tasks.add(executor.submit(network::computeAllocations));
+        }
+
+        // 全ての計算が終わるまで待つ（join によって計算結果がサーバースレッドから見える）
+        for (int i = 0; i < tasks.size(); i++) {
+            try {
+                tasks.get(i).join();
+            } catch (RuntimeException e) {
+                VENetwork network = prepared.get(i);
+                LOGGER.error("Failed to compute allocations for network {}",
+                        network.getNetworkId().toString().substring(0, 8), e);
+                // 計算に失敗したネットワークはこのtickでは送信しない
+                network.cancelAllocations();
+            }
+        }
+    }
+
+    private static ForkJoinPool getPool() {
+        ForkJoinPool current = pool;
+        if (current == null) {
+            synchronized (VENetworkTicker.class) {
+                current = pool;
+                if (current == null) {
+                    int parallelism = Math.max(1, Runtime.getRuntime().availableProcessors() - 1);
+                    current = new ForkJoinPool(parallelism, VENetworkTicker::newWorkerThread, null, false);
+                    pool = current;
+                }
+            }
+        }
+        return current;
+    }
+
+    private static ForkJoinWorkerThread newWorkerThread(ForkJoinPool forkJoinPool) {
+        ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(forkJoinPool);
+        thread.setName("VE-Network-Worker-" + thread.getPoolIndex());
+        thread.setDaemon(true);
+        return thread;
+    }
+
+    /**
+     * デバッグ情報を取得
+     */
+    public static String getDebugInfo() {
+        return String.format("Scheduled: %d, Processed (last tick): %d, Deferred (last tick): %d, Deferred (total): %d, Degraded: %s",
+                QUEUE.size(), lastProcessed, lastDeferred, totalDeferred, degraded);
+    }
+
+    /**
+     * スレッドプールを停止（サーバー停止時に呼ぶ）
+     */
+    public static void shutdown() {
+        synchronized (VENetworkTicker.class) {
+            if (pool != null) {
+                pool.shutdown();
+                pool = null;
+            }
+        }
+    }
+}
@@ -57,7 +57,7 @@ public abstract class VETransmitter implements IVETransmitter {
             network.removeTransmitter(this);
 
             // ネットワークを分割する可能性があるので再構築
-            VENetworkRegistry.refreshNetworksAround(position);
+            VENetworkRegistry.refreshNetworksAround(getWorld(), position);
         }
     }
 
@@ -27,18 +27,10 @@ public abstract class VETransmitterHelper {
         Level world = getWorld();
 
         for (Direction direction : Direction.values()) {
-            BlockPos adjacentPos = pos.relative(direction);
-
-            // その座標にネットワークがあるかチェック
-            VENetwork network = VENetworkRegistry.getNetworkAt(adjacentPos);
-            if (network != null) {
-                // そのネットワークのTransmitterを探す
-                for (VETransmitter transmitter : network.getTransmitters()) {
-                    if (transmitter.getPosition().equals(adjacentPos)) {
-                        adjacent.add(transmitter);
-                        break;
-                    }
-                }
+            // 座標索引から直接取得
+            VETransmitter transmitter = VENetworkRegistry.getTransmitterAt(world, pos.relative(direction));
+            if (transmitter != null) {
+                adjacent.add(transmitter);
             }
         }
 
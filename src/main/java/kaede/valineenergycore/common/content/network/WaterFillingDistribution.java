@@ -0,0 +1,50 @@
+package kaede.valineenergycore.common.content.network;
+
+import kaede.valineenergycore.api.energy.BigEnergy;
+
+/**
+ * 水位合わせ（max-min公平）による分配
+ * 需要の小さいAcceptorから順に満たし、満たしきれない残りのAcceptorには均等に配る
+ * 需要の大きいAcceptorが供給を独占しないので、小さいAcceptorが毎tick確実に満たされる
+ */
+public class WaterFillingDistribution implements DistributionStrategy {
+
+    private int[] order = new int[8];
+
+    @Override
+    public void distribute(int count, BigEnergy[] demands, int[] priorities, BigEnergy totalDemand, BigEnergy available, BigEnergy[] shares) {
+        if (order.length < count) {
+            order = new int[Math.max(count, order.length * 2)];
+        }
+        for (int i = 0; i < count; i++) {
+            order[i] = i;
+        }
+
+        // 需要の小さい順に一度だけ並べる
+        IndexSort.sortAscending(order, demands, count);
+
+        BigEnergy remaining = available;
+        for (int pos = 0; pos < count; pos++) {
+            int i = order[pos];
+            int left = count - pos;
+            BigEnergy fairShare = remaining.divide(left);
+
+            if (demands[i].smallerOrEqual(fairShare)) {
+                // 均等配分より需要が小さいなら満たして、余りを残りで分ける
+                shares[i] = demands[i];
+                remaining = remaining.subtract(demands[i]);
+            } else {
+                // 残りは全て均等配分より需要が大きいので、均等に配って終了
+                // 割り切れない分は需要の大きい側から1ずつ上乗せ
+                BigEnergy[] quotientAndRemainder = remaining.divideAndRemainder(BigEnergy.create(left));
+                int extra = (int) quotientAndRemainder[1].longValue();
+                for (int p = pos; p < count; p++) {
+                    shares[order[p]] = p >= count - extra
+                            ? quotientAndRemainder[0].add(BigEnergy.ONE)
+                            : quotientAndRemainder[0];
+                }
+                return;
+            }
+        }
+    }
+}